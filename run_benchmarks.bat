@@ -0,0 +1,52 @@
+@echo off
+
+rem Runs the JMH benchmarks of src\benchmarks\jmh with the GC profiler, downloading JMH into lib\jmh on first use.
+rem Any argument is passed to JMH, e.g. run_benchmarks.bat ParseBenchmark -p size=10,1024 to run some of them.
+
+rem Edit these if you're having issues
+set JAVA=java.exe
+set JAVAC=javac.exe
+set CURL=curl.exe
+
+set JMH_VERSION=1.37
+set JMH_DIR=lib\jmh
+set REPOSITORY=https://repo1.maven.org/maven2
+
+goto :main
+:title
+    echo.
+    echo [92m%*[0m
+    exit /b
+rem Every jar is checked against its pinned SHA-256 before it is put on the classpath, downloaded or not.
+:fetch
+    if not exist %JMH_DIR%\%2 (
+        echo Downloading %2...
+        %CURL% -sSfL -o %JMH_DIR%\%2 %REPOSITORY%/%1/%2 || exit /b 1
+    )
+    set HASH=
+    for /f "skip=1 delims=" %%h in ('certutil -hashfile %JMH_DIR%\%2 SHA256') do if not defined HASH set HASH=%%h
+    set HASH=%HASH: =%
+    if /i not "%HASH%" == "%3" (
+        echo %JMH_DIR%\%2 does not match its SHA-256, delete it to download it again.
+        exit /b 1
+    )
+    exit /b 0
+:main
+
+if not exist %JMH_DIR% mkdir %JMH_DIR%
+call :fetch org/openjdk/jmh/jmh-core/%JMH_VERSION% jmh-core-%JMH_VERSION%.jar dc0eaf2bbf0036a70b60798c785d6e03a9daf06b68b8edb0f1ba9eb3421baeb3 || exit /b 1
+call :fetch org/openjdk/jmh/jmh-generator-annprocess/%JMH_VERSION% jmh-generator-annprocess-%JMH_VERSION%.jar 6a5604b5b804e0daca1145df1077609321687734a8b49387e49f10557c186c77 || exit /b 1
+call :fetch net/sf/jopt-simple/jopt-simple/5.0.4 jopt-simple-5.0.4.jar df26cc58f235f477db07f753ba5a3ab243ebe5789d9f89ecf68dd62ea9a66c28 || exit /b 1
+call :fetch org/apache/commons/commons-math3/3.6.1 commons-math3-3.6.1.jar 1e56d7b058d28b65abd256b8458e3885b674c1d588fa43cd7d1cbb9c7ef2b308 || exit /b 1
+set JMH_CP=%JMH_DIR%\jmh-core-%JMH_VERSION%.jar;%JMH_DIR%\jmh-generator-annprocess-%JMH_VERSION%.jar;%JMH_DIR%\jopt-simple-5.0.4.jar;%JMH_DIR%\commons-math3-3.6.1.jar
+
+rem The benchmarks are compiled apart from the tests, the annotation processor generates the JMH harness next to them
+call :title Compiling benchmarks...
+if exist bench rmdir /s /q bench
+mkdir bench
+dir /b /s src\benchmarks\jmh\*.java > bench\sources.txt
+%JAVAC% -d ./bench -cp %JMH_CP% -processorpath %JMH_CP% --source-path ./src @bench\sources.txt || exit /b 1
+
+call :title Executing benchmarks...
+%JAVA% -cp bench;%JMH_CP% org.openjdk.jmh.Main -prof gc -rf csv -rff bench\results.csv %* || exit /b 1
+%JAVA% -cp bench benchmarks.jmh.ScalingReport bench\results.csv
@@ -0,0 +1,35 @@
+# Runs the JMH benchmarks of src/benchmarks/jmh with the GC profiler, downloading JMH into lib/jmh on first use and checking every jar against its pinned SHA-256.
+# Any argument is passed to JMH, e.g. bash run_benchmarks.sh ParseBenchmark -p size=10,1024 to run some of them.
+JMH_VERSION=1.37
+JMH_DIR=./lib/jmh
+REPOSITORY=https://repo1.maven.org/maven2
+
+# Every jar is checked against its pinned SHA-256 before it is put on the classpath, downloaded or not.
+fetch() {
+    if [ ! -f "$JMH_DIR/$2" ]
+    then
+        echo "Downloading $2..."
+        curl -sSfL -o "$JMH_DIR/$2" "$REPOSITORY/$1/$2" || exit 1
+    fi
+    if ! echo "$3  $JMH_DIR/$2" | sha256sum -c --quiet
+    then
+        echo "$JMH_DIR/$2 does not match its SHA-256, delete it to download it again."
+        exit 1
+    fi
+}
+
+mkdir -p $JMH_DIR
+fetch org/openjdk/jmh/jmh-core/$JMH_VERSION jmh-core-$JMH_VERSION.jar dc0eaf2bbf0036a70b60798c785d6e03a9daf06b68b8edb0f1ba9eb3421baeb3
+fetch org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION jmh-generator-annprocess-$JMH_VERSION.jar 6a5604b5b804e0daca1145df1077609321687734a8b49387e49f10557c186c77
+fetch net/sf/jopt-simple/jopt-simple/5.0.4 jopt-simple-5.0.4.jar df26cc58f235f477db07f753ba5a3ab243ebe5789d9f89ecf68dd62ea9a66c28
+fetch org/apache/commons/commons-math3/3.6.1 commons-math3-3.6.1.jar 1e56d7b058d28b65abd256b8458e3885b674c1d588fa43cd7d1cbb9c7ef2b308
+JMH_CP=$JMH_DIR/jmh-core-$JMH_VERSION.jar:$JMH_DIR/jmh-generator-annprocess-$JMH_VERSION.jar:$JMH_DIR/jopt-simple-5.0.4.jar:$JMH_DIR/commons-math3-3.6.1.jar
+
+# The benchmarks are compiled apart from the tests, the annotation processor generates the JMH harness next to them
+echo "Compiling benchmarks..."
+rm -rf ./bench
+javac -d ./bench -cp $JMH_CP -processorpath $JMH_CP --source-path ./src ./src/benchmarks/jmh/*.java || exit 1
+
+echo "Executing benchmarks..."
+java -cp ./bench:$JMH_CP org.openjdk.jmh.Main -prof gc -rf csv -rff ./bench/results.csv "$@" || exit 1
+java -cp ./bench benchmarks.jmh.ScalingReport ./bench/results.csv
@@ -48,12 +48,19 @@ for %%i in (CoordinateTest, DirectionTest, ExceptionTest, MazeTest, RouteFinderT
 
 rem Compile functional tests (these won't compile without code)
 call :title Compiling functional tests...
-for %%i in (MazeTest, RouteFinderTest, TileTest) do (
+for %%i in (MazeTest, RouteFinderTest, TileTest, MazeGridTest, MazeParserTest, RouteFinderSolveTest, SearchStrategyTest, MappedMazeTest, MazeBinaryTest, RouteFileTest, SolutionCacheTest, MazeRouterTest, ExitDistancesTest, ViewportTest, SearchWorkerTest) do (
     for %%j IN (%TEST_TYPES%) do (
         call :subtitle Compiling tests/%%j/functional/%%i.java
         %JAVAC% -d ./bin -cp .;junit-platform-console-standalone.jar --source-path ./src ./src/tests/%%j/functional/%%i.java
     )
 )
+rem The command line tools are in the default package, which their tests reach reflectively, so they are compiled alongside
+for %%j IN (%TEST_TYPES%) do (
+    call :subtitle Compiling tests/%%j/functional/MazeServerTest.java
+    %JAVAC% -d ./bin -cp .;junit-platform-console-standalone.jar --source-path ./src ./src/MazeServer.java ./src/tests/%%j/functional/MazeServerTest.java
+    call :subtitle Compiling tests/%%j/functional/MazeDriverTest.java
+    %JAVAC% -d ./bin -cp .;junit-platform-console-standalone.jar --source-path ./src ./src/MazeDriver.java ./src/tests/%%j/functional/MazeDriverTest.java
+)
 
 :end
 
@@ -21,6 +21,21 @@ echo "Compiling functional tests..."
 javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/MazeTest.java
 javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/RouteFinderTest.java
 javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/TileTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/MazeGridTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/MazeParserTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/RouteFinderSolveTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/SearchStrategyTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/MappedMazeTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/MazeBinaryTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/RouteFileTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/SolutionCacheTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/MazeRouterTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/ExitDistancesTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/ViewportTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/tests/*/functional/SearchWorkerTest.java
+# The command line tools are in the default package, which their tests reach reflectively, so they are compiled alongside
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/MazeServer.java ./src/tests/*/functional/MazeServerTest.java
+javac -d ./bin -cp .:junit-platform-console-standalone.jar --source-path ./src ./src/MazeDriver.java ./src/tests/*/functional/MazeDriverTest.java
 
 # These functional tests will allow either a static or non-static Coordinate class
 echo "isStatic is $isStatic"
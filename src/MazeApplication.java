@@ -1,8 +1,13 @@
 import javafx.application.Application;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -10,8 +15,10 @@ import maze.InvalidMazeException;
 import maze.Maze;
 import maze.routing.NoRouteFoundException;
 import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
 import maze.visualisation.AlertDialog;
 import maze.visualisation.MazeView;
+import maze.visualisation.SearchAnimation;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -22,9 +29,16 @@ import java.io.IOException;
 */
 public class MazeApplication extends Application {
 
+    // Room left for the scroll bars of the maze viewport.
+    private static final double SCROLL_BAR_SIZE = 20;
+
     private Maze maze;
     private RouteFinder rf;
     private MazeView grid;
+    private ComboBox<String> strategy;
+    private Spinner<Integer> stepsPerFrame;
+    private Label status;
+    private SearchAnimation animation;
 
     /**
     * Method that sets up the main window buttons and their functionality.
@@ -69,6 +83,8 @@ public class MazeApplication extends Application {
             public void handle(ActionEvent event) {
                 if (rf == null) {
                     AlertDialog.display("Error", "Nothing to save!");
+                } else if (!isIdle()) {
+                    AlertDialog.display("Error", "Pause the search first!");
                 } else {
                     File file = fileChooser.showSaveDialog(primaryStage);
                     if (file != null) {
@@ -78,9 +94,24 @@ public class MazeApplication extends Application {
             }
         });
 
+        strategy = new ComboBox<String>();
+        strategy.getItems().addAll(SearchStrategies.getNames());
+        strategy.setValue(SearchStrategies.getNames().get(0));
+        strategy.setOnAction(e -> {
+            if (maze != null) {
+                cancelAnimation();
+                rf = new RouteFinder(maze, SearchStrategies.create(strategy.getValue()));
+                grid.renderMaze(maze, rf);
+            }
+        });
+
         Button step = new Button();
         step.setText("Step");
         step.setOnAction(e -> {
+            if (!isIdle()) {
+                AlertDialog.display("Error", "Pause the search first!");
+                return;
+            }
             try {
                 rf.step();
                 grid.renderMaze(maze, rf);
@@ -91,16 +122,82 @@ public class MazeApplication extends Application {
             }
         });
 
+        // Run solves on a worker thread, the view is redrawn once per frame with the steps performed since the last one.
+        Button run = new Button();
+        run.setText("Run");
+        run.setOnAction(e -> {
+            if (rf == null) {
+                AlertDialog.display("Error", "Maze not loaded!");
+                return;
+            }
+            if (animation == null || animation.getRouteFinder() != rf) {
+                cancelAnimation();
+                animation = new SearchAnimation(maze, rf, grid);
+                animation.setOnProgress(snapshot -> status.setText("Steps: " + snapshot.getSteps() + "  Route: " + snapshot.getRouteSize()));
+                animation.setOnFailed(ex -> AlertDialog.display("Error", "No route found!"));
+            }
+            animation.setStepsPerFrame(stepsPerFrame.getValue());
+            animation.play();
+        });
+
+        Button pause = new Button();
+        pause.setText("Pause");
+        pause.setOnAction(e -> {
+            if (animation != null)
+                animation.pause();
+        });
+
+        Button cancel = new Button();
+        cancel.setText("Cancel");
+        cancel.setOnAction(e -> {
+            if (maze != null) {
+                cancelAnimation();
+                rf = new RouteFinder(maze, SearchStrategies.create(strategy.getValue()));
+                grid.renderMaze(maze, rf);
+                status.setText("");
+            }
+        });
+
+        stepsPerFrame = new Spinner<Integer>(1, 1000000, 1);
+        stepsPerFrame.setEditable(true);
+        stepsPerFrame.valueProperty().addListener((observable, previous, value) -> {
+            if (animation != null)
+                animation.setStepsPerFrame(value);
+        });
+        status = new Label();
+
+        HBox controls = new HBox();
+        controls.getChildren().addAll(step, run, pause, cancel, new Label("Steps per frame:"), stepsPerFrame, status);
+
         box.getChildren().add(loadMap);
         box.getChildren().add(loadRoute);
         box.getChildren().add(saveRoute);
+        box.getChildren().add(strategy);
         box.getChildren().add(grid);
-        box.getChildren().add(step);
+        box.getChildren().add(controls);
 
-        Scene scene = new Scene(box, 500, 500);
+        Scene scene = new Scene(box, 640, 640);
         primaryStage.setTitle("Maze Solver");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        // The viewport takes the room the other controls leave, whatever the size of the maze.
+        scene.widthProperty().addListener((observable, previous, value) -> resizeViewport(scene, box));
+        scene.heightProperty().addListener((observable, previous, value) -> resizeViewport(scene, box));
+        resizeViewport(scene, box);
+    }
+
+    /**
+    * Method that fits the viewport of the maze to the room left in the window by the other controls.
+    * @param scene The {@link Scene} of the window.
+    * @param box The {@link VBox} holding the controls and the maze.
+    */
+    private void resizeViewport(Scene scene, VBox box) {
+        double controls = 0;
+        for (Node child : box.getChildren())
+            if (child != grid)
+                controls += child.getBoundsInParent().getHeight();
+        grid.setViewportSize(scene.getWidth() - SCROLL_BAR_SIZE, scene.getHeight() - controls - SCROLL_BAR_SIZE);
     }
 
     /**
@@ -116,11 +213,29 @@ public class MazeApplication extends Application {
         fileChooser.setInitialDirectory(new File(System.getProperty("user.dir")));
     }
 
+    private boolean isIdle() {
+        return animation == null || animation.isIdle();
+    }
+
+    private void cancelAnimation() {
+        if (animation == null)
+            return;
+        boolean idle = animation.isIdle();
+        animation.cancel();
+        animation = null;
+        // The worker may still be stepping the search it was given, so that search is dropped.
+        if (!idle && maze != null) {
+            rf = new RouteFinder(maze, SearchStrategies.create(strategy.getValue()));
+            grid.renderMaze(maze, rf);
+        }
+    }
+
     private void readMap(File file) {
+        cancelAnimation();
         try {
             String path = file.getAbsolutePath();
             maze = Maze.fromTxt(path);
-            rf = new RouteFinder(maze);
+            rf = new RouteFinder(maze, SearchStrategies.create(strategy.getValue()));
             grid.renderMaze(maze, rf);
         } catch (FileNotFoundException ex) {
             AlertDialog.display("Error", "File not found!");
@@ -132,6 +247,7 @@ public class MazeApplication extends Application {
     }
 
     private void readRoute(File file) {
+        cancelAnimation();
         try {
             String path = file.getAbsolutePath();
             rf = RouteFinder.load(path);
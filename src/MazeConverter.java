@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import maze.Maze;
+
+/**
+* Command line tool that converts text mazes to the binary maze format read by {@link Maze#fromBinary(Path)}.
+* Every argument is a text maze or a directory whose {@code *.txt} mazes are all converted; each binary maze is
+* written next to its text maze with the {@code .maze} extension.
+* @author Marius Traian Hostinar
+*/
+public class MazeConverter {
+
+    /**
+    * Main function that converts the mazes given as arguments, printing one line per maze.
+    */
+    public static void main(String args[]) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java MazeConverter <maze.txt | directory>...");
+            return;
+        }
+        boolean failed = false;
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> mazes = Files.newDirectoryStream(path, "*.txt")) {
+                    for (Path maze : mazes)
+                        failed |= !convert(maze);
+                }
+            } else {
+                failed |= !convert(path);
+            }
+        }
+        if (failed)
+            System.exit(1);
+    }
+
+    private static boolean convert(Path source) {
+        String name = source.getFileName().toString();
+        Path target = source.resolveSibling((name.endsWith(".txt") ? name.substring(0, name.length() - 4) : name) + ".maze");
+        try {
+            Maze.fromTxt(source.toString()).toBinary(target);
+            System.out.println(source + " -> " + target + " (" + Files.size(source) + " -> " + Files.size(target) + " bytes)");
+            return true;
+        } catch (Exception exception) {
+            System.out.println(source + ": " + exception);
+            return false;
+        }
+    }
+}
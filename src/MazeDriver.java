@@ -1,27 +1,232 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import maze.InvalidMazeException;
 import maze.Maze;
-import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+import maze.routing.SolutionCache;
+import maze.routing.SolutionCache.Solution;
 
 /**
+* Command line tool that solves mazes without any visualisation, many at once on a pool of worker threads.
+* Every argument is a maze, a directory whose {@code *.txt} and {@code *.maze} mazes are all solved, or a glob such as
+* {@code mazes/**.txt}. Binary mazes are read with {@link Maze#fromBinary(Path)}, the others as text mazes. One line is
+* printed per maze as it is solved, then a summary of the whole batch. Solutions are cached by maze content, in
+* memory and with {@code --cache} in a directory such as {@code resources/solutions}, so repeated mazes are not solved
+* again, see {@link SolutionCache}. With {@code --fill-dead-ends} the dead ends of every maze are filled before it is
+* searched, see {@link maze.routing.DeadEndFilling}; the summary gives the steps taken and the cells filled.
 * @author Marius Traian Hostinar
 */
 public class MazeDriver {
 
+    private static final String USAGE = "Usage: java MazeDriver [--threads <count>] [--strategy <name>] [--cache <directory>] [--fill-dead-ends] <maze | directory | glob>...";
+    // Memory taken by the solutions of the mazes met in the batch, so a maze repeated in the batch is solved once.
+    private static final long CACHE_BYTES = 64L << 20;
+
+    private final String strategy;
+    private final boolean fillDeadEnds;
+    private final SolutionCache cache;
+    private final ExecutorService pool;
+    // Bounds the mazes waiting for a worker, so the files of a huge batch are listed as they are solved.
+    private final Semaphore queued;
+    private final PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+    private final AtomicLong solved = new AtomicLong();
+    private final AtomicLong unsolvable = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong solveNanos = new AtomicLong();
+    private final AtomicLong steps = new AtomicLong();
+    private final AtomicLong pruned = new AtomicLong();
+
+    private MazeDriver(int threads, String strategy, boolean fillDeadEnds, Path cacheDirectory) {
+        this.strategy = strategy;
+        this.fillDeadEnds = fillDeadEnds;
+        this.cache = new SolutionCache(CACHE_BYTES, cacheDirectory);
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.queued = new Semaphore(threads * 4);
+    }
+
     /**
-    * Main function that solves the {@link Maze} without any visualisation.
+    * Main function that solves the mazes given as arguments, printing one tab separated line per maze with its
+    * status, route length, tiles visited, parse time and solve time in milliseconds.
     */
-    public static void main(String args[]) {
+    public static void main(String args[]) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String strategy = SearchStrategies.getNames().get(0);
+        Path cacheDirectory = null;
+        boolean fillDeadEnds = false;
+        int first = 0;
+        try {
+            while (first < args.length && args[first].startsWith("--")) {
+                String option = args[first++];
+                if (option.equals("--fill-dead-ends")) {
+                    fillDeadEnds = true;
+                    continue;
+                }
+                if (first == args.length)
+                    throw new IllegalArgumentException("Missing value of " + option);
+                String value = args[first++];
+                if (option.equals("--threads"))
+                    threads = Integer.parseInt(value);
+                else if (option.equals("--strategy"))
+                    strategy = SearchStrategies.create(value).getName();
+                else if (option.equals("--cache"))
+                    cacheDirectory = Paths.get(value);
+                else
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+            if (threads < 1)
+                throw new IllegalArgumentException("At least one thread is needed!");
+        } catch (IllegalArgumentException exception) {
+            System.out.println(exception.getMessage());
+            first = args.length;
+        }
+        if (first == args.length) {
+            System.out.println(USAGE);
+            return;
+        }
         
-        String path = System.getProperty("user.dir");
-        path += "/resources/mazes/maze3.txt";
+        MazeDriver driver = new MazeDriver(threads, strategy, fillDeadEnds, cacheDirectory);
+        long start = System.nanoTime();
+        for (int i = first; i < args.length; i++)
+            driver.submitAll(args[i]);
+        driver.pool.shutdown();
+        driver.pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        driver.printSummary(System.nanoTime() - start, threads);
+        if (driver.failed.get() > 0)
+            System.exit(1);
+    }
+
+    private void submitAll(String arg) throws IOException, InterruptedException {
+        Path path = Paths.get(arg);
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> mazes = Files.newDirectoryStream(path, "*.{txt,maze}")) {
+                submitAll(mazes.iterator());
+            }
+        } else if (isGlob(arg)) {
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + arg);
+            try (Stream<Path> files = Files.walk(globRoot(arg), globDepth(arg))) {
+                submitAll(files.filter(file -> matcher.matches(file) && Files.isRegularFile(file)).iterator());
+            }
+        } else {
+            submit(path);
+        }
+    }
+
+    private void submitAll(Iterator<Path> mazes) throws InterruptedException {
+        while (mazes.hasNext())
+            submit(mazes.next());
+    }
+
+    private void submit(Path maze) throws InterruptedException {
+        queued.acquire();
+        pool.execute(() -> {
+            try {
+                solve(maze);
+            } finally {
+                queued.release();
+            }
+        });
+    }
+
+    private void solve(Path path) {
+        long start = System.nanoTime();
+        Maze maze;
+        try {
+            maze = path.toString().endsWith(".maze") ? Maze.fromBinary(path) : Maze.fromTxt(path.toString());
+        } catch (IOException | InvalidMazeException | RuntimeException exception) {
+            failed.incrementAndGet();
+            print(path, exception instanceof InvalidMazeException ? "INVALID" : "ERROR", -1, -1, System.nanoTime() - start, 0, exception.toString());
+            return;
+        }
+        long parsed = System.nanoTime();
+        Solution solution;
         try {
-            Maze maze = Maze.fromTxt(path);
-            RouteFinder routeFinder = new RouteFinder(maze);
-            System.out.println(maze.toString());
-            while (routeFinder.isFinished() != true)
-                routeFinder.step();
-            System.out.println(routeFinder.toString());
-        } catch (Exception exception) {
-            System.out.println(exception);
+            solution = cache.solve(maze, strategy, fillDeadEnds);
+        } catch (RuntimeException exception) {
+            failed.incrementAndGet();
+            print(path, "ERROR", -1, -1, parsed - start, System.nanoTime() - parsed, exception.toString());
+            return;
         }
+        long end = System.nanoTime();
+        (solution.isSolvable() ? solved : unsolvable).incrementAndGet();
+        steps.addAndGet(solution.getSteps());
+        pruned.addAndGet(solution.getPrunedCount());
+        print(path, solution.isSolvable() ? "SOLVED" : "NO_ROUTE", solution.getRouteSize(), solution.getTilesVisited(), parsed - start, end - parsed, "");
+    }
+
+    private void print(Path path, String status, int routeSize, int visited, long parse, long solve, String detail) {
+        parseNanos.addAndGet(parse);
+        solveNanos.addAndGet(solve);
+        String line = String.format(Locale.ROOT, "%s\t%s\t%d\t%d\t%.3f\t%.3f", path, status, routeSize, visited, parse / 1e6, solve / 1e6);
+        synchronized (out) {
+            out.print(line);
+            if (!detail.isEmpty())
+                out.print("\t" + detail);
+            out.println();
+        }
+    }
+
+    private void printSummary(long elapsed, int threads) {
+        long mazes = solved.get() + unsolvable.get() + failed.get();
+        synchronized (out) {
+            out.println(String.format(Locale.ROOT, "%d mazes in %.3f s on %d threads (%.1f mazes/s): %d solved, %d without route, %d failed; parse %.3f ms, solve %.3f ms in total",
+                mazes, elapsed / 1e9, threads, mazes / (elapsed / 1e9), solved.get(), unsolvable.get(), failed.get(), parseNanos.get() / 1e6, solveNanos.get() / 1e6));
+            out.println(String.format(Locale.ROOT, "search: %d steps, %d dead end cells filled", steps.get(), pruned.get()));
+            out.println(String.format(Locale.ROOT, "solution cache: %d hits, %d disk hits, %d misses",
+                cache.getHits(), cache.getDiskHits(), cache.getMisses()));
+            out.flush();
+        }
+    }
+
+    private static boolean isGlob(String arg) {
+        return arg.matches(".*[*?\\[{].*");
+    }
+
+    /**
+    * Method that gets the directory a glob is walked from, the part of the glob before the directory its pattern starts in.
+    * @param glob A glob whose matches are to be listed.
+    * @return Returns the {@link Path} of the deepest directory holding every match.
+    */
+    private static Path globRoot(String glob) {
+        int separator = rootSeparator(glob);
+        return separator < 0 ? Paths.get("") : Paths.get(glob.substring(0, separator + 1));
+    }
+
+    /**
+    * Method that gets how deep below its root a glob can match, so only those levels of the tree are walked.
+    * @param glob A glob whose matches are to be listed.
+    * @return Returns the number of directory levels the pattern spans, unbounded if it has {@code **}.
+    */
+    private static int globDepth(String glob) {
+        String pattern = glob.substring(rootSeparator(glob) + 1);
+        if (pattern.contains("**"))
+            return Integer.MAX_VALUE;
+        int depth = 1;
+        for (int i = 0; i < pattern.length(); i++)
+            if (pattern.charAt(i) == '/' || pattern.charAt(i) == File.separatorChar)
+                depth++;
+        return depth;
+    }
+
+    private static int rootSeparator(String glob) {
+        String prefix = glob.replaceAll("[*?\\[{].*", "");
+        return Math.max(prefix.lastIndexOf('/'), prefix.lastIndexOf(File.separatorChar));
     }
 }
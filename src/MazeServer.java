@@ -0,0 +1,291 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.MazeGrid;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+import maze.routing.SolutionCache;
+import maze.routing.SolutionCache.Solution;
+
+/**
+* Command line tool that serves maze solving over HTTP, so mazes are solved by one running JVM instead of a new
+* {@link MazeDriver} per maze. Every request runs on its own virtual thread when the JDK has them (JDK 21 and later),
+* on a bounded pool of platform threads otherwise.
+* <ul>
+* <li>{@code POST /solve} solves the text maze in the request body and answers the coordinates of the route, one per
+* line from the entrance, or the maze with the route drawn on it with {@code ?format=maze}. The strategy can be chosen
+* with {@code ?strategy=<name>}. An invalid maze or query is answered with 400 and a maze without route with 422. Routes are
+* cached by maze content, see {@link SolutionCache}.</li>
+* <li>{@code GET /stats} answers the number of requests by outcome, the hits and misses of the cache and the
+* percentiles of the latency of the requests.</li>
+* </ul>
+* @author Marius Traian Hostinar
+*/
+public class MazeServer {
+
+    private static final String USAGE = "Usage: java MazeServer [--port <port>] [--strategy <name>] [--cache <directory>]";
+    private static final int DEFAULT_PORT = 8080;
+    // The latency percentiles are taken over this many of the latest requests.
+    private static final int LATENCY_SAMPLES = 1 << 16;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final long CACHE_BYTES = 256L << 20;
+    // Requests mostly wait on their upload, so the platform threads outnumber the processors.
+    private static final int REQUEST_THREADS_PER_PROCESSOR = 4;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String strategy;
+    private final SolutionCache cache;
+    private final AtomicLong solved = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long recorded;
+
+    /**
+    * Constructor for a server bound to an address, that does not accept requests until started.
+    * @param address The address to listen on.
+    * @param strategy The name of the search strategy used by requests that do not choose one.
+    * @param cacheDirectory The directory the routes are cached in besides memory, or null to cache them in memory only.
+    * @throws IOException Indicates the address cannot be bound.
+    */
+    public MazeServer(InetSocketAddress address, String strategy, Path cacheDirectory) throws IOException {
+        this.strategy = SearchStrategies.create(strategy).getName();
+        this.cache = new SolutionCache(CACHE_BYTES, cacheDirectory);
+        this.executor = newRequestExecutor();
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/solve", this::solve);
+        server.createContext("/stats", this::stats);
+        server.setExecutor(executor);
+    }
+
+    /**
+    * Main function that serves mazes on the local host until the process is stopped.
+    */
+    public static void main(String args[]) throws IOException {
+        int port = DEFAULT_PORT;
+        String strategy = SearchStrategies.getNames().get(0);
+        Path cacheDirectory = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length)
+                    throw new IllegalArgumentException("Missing value of " + args[i]);
+                if (args[i].equals("--port"))
+                    port = Integer.parseInt(args[i + 1]);
+                else if (args[i].equals("--strategy"))
+                    strategy = SearchStrategies.create(args[i + 1]).getName();
+                else if (args[i].equals("--cache"))
+                    cacheDirectory = Paths.get(args[i + 1]);
+                else
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        } catch (IllegalArgumentException exception) {
+            System.out.println(exception.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+        MazeServer server = new MazeServer(new InetSocketAddress("localhost", port), strategy, cacheDirectory);
+        server.start();
+        System.out.println("Solving mazes posted to http://localhost:" + server.getPort() + "/solve");
+    }
+
+    /**
+    * Method that starts accepting requests.
+    */
+    public void start() {
+        server.start();
+    }
+
+    /**
+    * Method that stops accepting requests, waiting at most a given delay for the ones being answered.
+    * @param delay The number of seconds to wait for the requests being answered.
+    */
+    public void stop(int delay) {
+        server.stop(delay);
+        executor.shutdown();
+    }
+
+    /**
+    * Method that gets the port the server listens on, chosen by the system if the server was bound to port 0.
+    * @return Returns the port of the server.
+    */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+    * Method that creates the executor running the requests: one virtual thread per request from JDK 21, looked up
+    * reflectively so the server still runs on older JDKs with a fixed pool of platform threads. The pool is bounded
+    * so that many slow uploads queue instead of each taking a thread of its own.
+    * @return Returns the {@link ExecutorService} of the requests.
+    */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            return Executors.newFixedThreadPool(REQUEST_THREADS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                reject(exchange, 405, "Mazes have to be posted!");
+                return;
+            }
+            Map<String, String> query;
+            try {
+                query = parseQuery(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException exception) {
+                reject(exchange, 400, exception.getMessage());
+                return;
+            }
+            String format = query.getOrDefault("format", "route");
+            if (!format.equals("route") && !format.equals("maze")) {
+                reject(exchange, 400, "Unknown format: " + format);
+                return;
+            }
+            String name = query.getOrDefault("strategy", strategy);
+            if (!SearchStrategies.getNames().contains(name)) {
+                reject(exchange, 400, "Unknown search strategy: " + name);
+                return;
+            }
+            Maze maze;
+            try {
+                maze = Maze.fromTxt(exchange.getRequestBody());
+            } catch (InvalidMazeException exception) {
+                reject(exchange, 400, exception.getMessage());
+                return;
+            }
+            RouteFinder routeFinder = null;
+            Solution solution = null;
+            try {
+                // Drawing the maze needs the visited cells, which are not cached.
+                if (format.equals("maze")) {
+                    routeFinder = new RouteFinder(maze, SearchStrategies.create(name));
+                    routeFinder.solve();
+                } else {
+                    solution = cache.solve(maze, name);
+                    if (!solution.isSolvable())
+                        throw new NoRouteFoundException();
+                }
+            } catch (NoRouteFoundException exception) {
+                reject(exchange, 422, exception.getMessage());
+                return;
+            }
+
+            int routeSize = solution != null ? solution.getRouteSize() : routeFinder.getState().getRouteSize();
+            int visited = solution != null ? solution.getTilesVisited() : routeFinder.getState().getVisited().cardinality();
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.getResponseHeaders().set("X-Route-Length", Integer.toString(routeSize));
+            exchange.getResponseHeaders().set("X-Tiles-Visited", Integer.toString(visited));
+            // The answer is streamed, so the text of a huge maze is never held in memory.
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                if (routeFinder != null) {
+                    routeFinder.writeTo(out);
+                } else {
+                    MazeGrid grid = maze.getGrid();
+                    for (int i = 0; i < routeSize; i++) {
+                        int cell = solution.getRouteCell(i);
+                        out.write(new Maze.Coordinate(grid.getX(cell), grid.getY(cell)) + "\n");
+                    }
+                }
+            }
+            solved.incrementAndGet();
+        } catch (IOException | RuntimeException exception) {
+            failed.incrementAndGet();
+            throw exception;
+        } finally {
+            exchange.close();
+            record(System.nanoTime() - start);
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try {
+            long[] samples;
+            long requests;
+            synchronized (latencies) {
+                requests = recorded;
+                samples = Arrays.copyOf(latencies, (int) Math.min(recorded, LATENCY_SAMPLES));
+            }
+            Arrays.sort(samples);
+            StringBuilder body = new StringBuilder();
+            body.append("requests ").append(requests).append('\n');
+            body.append("solved ").append(solved.get()).append('\n');
+            body.append("rejected ").append(rejected.get()).append('\n');
+            body.append("failed ").append(failed.get()).append('\n');
+            body.append("cache_hits ").append(cache.getHits()).append('\n');
+            body.append("cache_disk_hits ").append(cache.getDiskHits()).append('\n');
+            body.append("cache_misses ").append(cache.getMisses()).append('\n');
+            for (double percentile : PERCENTILES) {
+                // Nearest rank over the latest requests.
+                long latency = samples.length == 0 ? 0 : samples[(int) Math.ceil(percentile * samples.length) - 1];
+                body.append(String.format(Locale.ROOT, "latency_ms p%s %.3f%n", Double.toString(percentile * 100).replaceAll("\\.0$", ""), latency / 1e6));
+            }
+            body.append(String.format(Locale.ROOT, "latency_ms max %.3f%n", samples.length == 0 ? 0 : samples[samples.length - 1] / 1e6));
+            respond(exchange, 200, body.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void record(long latency) {
+        synchronized (latencies) {
+            latencies[(int) (recorded % LATENCY_SAMPLES)] = latency;
+            recorded++;
+        }
+    }
+
+    private void reject(HttpExchange exchange, int status, String message) throws IOException {
+        rejected.incrementAndGet();
+        respond(exchange, status, message + "\n");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        if (query == null)
+            return parameters;
+        for (String parameter : query.split("&")) {
+            if (parameter.isEmpty())
+                continue;
+            int equals = parameter.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? parameter : parameter.substring(0, equals), StandardCharsets.UTF_8);
+            if (!name.equals("strategy") && !name.equals("format"))
+                throw new IllegalArgumentException("Unknown parameter: " + name);
+            parameters.put(name, equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,124 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+* Class that generates text mazes of a given size for the benchmarks.
+* @author Marius Traian Hostinar
+*/
+public class MazeGenerator {
+
+    /**
+    * Method that generates a perfect maze (exactly one route between any two corridors) using a randomised depth-first carve.
+    * The entrance is in the top left corner and the exit in the bottom right corner.
+    * @param width The number of columns of the maze, rounded down to an odd number of at least 3.
+    * @param height The number of rows of the maze, rounded down to an odd number of at least 3.
+    * @param seed The seed of the random generator, the same seed always gives the same maze.
+    * @return Returns the rows of the maze, the first row being the top one.
+    */
+    public static char[][] perfect(int width, int height, long seed) {
+        width = Math.max(3, width - 1 + width % 2);
+        height = Math.max(3, height - 1 + height % 2);
+        char[][] rows = walls(width, height);
+        Random random = new Random(seed);
+
+        int cellsX = width / 2;
+        int cellsY = height / 2;
+        boolean[] carved = new boolean[cellsX * cellsY];
+        int[] stack = new int[cellsX * cellsY];
+        int size = 0;
+        stack[size++] = 0;
+        carved[0] = true;
+        rows[1][1] = '.';
+        int[] options = new int[4];
+
+        while (size > 0) {
+            int cell = stack[size - 1];
+            int cx = cell % cellsX;
+            int cy = cell / cellsX;
+            int count = 0;
+            if (cy > 0 && !carved[cell - cellsX]) options[count++] = cell - cellsX;
+            if (cy < cellsY - 1 && !carved[cell + cellsX]) options[count++] = cell + cellsX;
+            if (cx > 0 && !carved[cell - 1]) options[count++] = cell - 1;
+            if (cx < cellsX - 1 && !carved[cell + 1]) options[count++] = cell + 1;
+            if (count == 0) {
+                size--;
+                continue;
+            }
+            int next = options[random.nextInt(count)];
+            int nx = next % cellsX;
+            int ny = next / cellsX;
+            rows[2 * cy + 1 + (ny - cy)][2 * cx + 1 + (nx - cx)] = '.';
+            rows[2 * ny + 1][2 * nx + 1] = '.';
+            carved[next] = true;
+            stack[size++] = next;
+        }
+        rows[0][1] = 'e';
+        rows[height - 1][width - 2] = 'x';
+        return rows;
+    }
+
+    /**
+    * Method that generates an open maze, a floor of corridors with scattered walls (like a warehouse floor).
+    * The entrance is in the top left corner and the exit in the bottom right corner.
+    * @param width The number of columns of the maze, at least 3.
+    * @param height The number of rows of the maze, at least 3.
+    * @param wallDensity The probability of an inner tile being a wall.
+    * @param seed The seed of the random generator, the same seed always gives the same maze.
+    * @return Returns the rows of the maze, the first row being the top one.
+    */
+    public static char[][] open(int width, int height, double wallDensity, long seed) {
+        width = Math.max(3, width);
+        height = Math.max(3, height);
+        char[][] rows = walls(width, height);
+        Random random = new Random(seed);
+        for (int y = 1; y < height - 1; y++)
+            for (int x = 1; x < width - 1; x++)
+                rows[y][x] = random.nextDouble() < wallDensity ? '#' : '.';
+        rows[0][1] = 'e';
+        rows[1][1] = '.';
+        rows[height - 1][width - 2] = 'x';
+        rows[height - 2][width - 2] = '.';
+        return rows;
+    }
+
+    /**
+    * Method that writes the rows of a maze to a text file readable by {@link maze.Maze#fromTxt(String)}.
+    * @param rows The rows of the maze, the first row being the top one.
+    * @param file The {@link Path} of the file to write.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    public static void write(char[][] rows, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (char[] row : rows) {
+                writer.write(row);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+    * Method that writes a maze to a temporary file deleted when the JVM exits.
+    * @param rows The rows of the maze, the first row being the top one.
+    * @return Returns the {@link Path} of the written file.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    public static Path writeTemporary(char[][] rows) throws IOException {
+        Path file = Files.createTempFile("maze", ".txt");
+        file.toFile().deleteOnExit();
+        write(rows, file);
+        return file;
+    }
+
+    private static char[][] walls(int width, int height) {
+        char[][] rows = new char[height][width];
+        for (char[] row : rows)
+            java.util.Arrays.fill(row, '#');
+        return rows;
+    }
+}
@@ -0,0 +1,36 @@
+package benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+import maze.routing.ClusterAbstraction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmark that measures building the {@link ClusterAbstraction} of a perfect maze, paid by the first
+* {@link maze.routing.HierarchicalSearch} of a maze only, for several cluster sizes.
+* @author Marius Traian Hostinar
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ClusterAbstractionBenchmark {
+
+    @Param({"8", "16", "32"})
+    public int clusterSize;
+
+    @Benchmark
+    public ClusterAbstraction build(MazeState state) {
+        return ClusterAbstraction.build(state.maze.getGrid(), clusterSize);
+    }
+}
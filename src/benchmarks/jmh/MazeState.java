@@ -0,0 +1,57 @@
+package benchmarks.jmh;
+
+import benchmarks.MazeGenerator;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import maze.Maze;
+import maze.routing.RouteFinder;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+* Benchmark state that holds one generated perfect maze of every size, shared by all the benchmarks so each trial
+* measures the same maze: its text and binary files, the loaded {@link Maze} and a solved {@link RouteFinder} saved
+* to a route file. The sizes are the width and height of the maze, rounded down to odd like {@link MazeGenerator#perfect}.
+* @author Marius Traian Hostinar
+*/
+@State(Scope.Benchmark)
+public class MazeState {
+
+    @Param({"10", "64", "256", "1024", "4096"})
+    public int size;
+
+    public Path text;
+    public Path binary;
+    public Path route;
+    public Maze maze;
+    public RouteFinder solved;
+
+    /**
+    * Method that generates the maze and writes its files once per trial.
+    */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        text = MazeGenerator.writeTemporary(MazeGenerator.perfect(size, size, 42));
+        maze = Maze.fromTxt(text.toString());
+        binary = Files.createTempFile("maze", ".maze");
+        maze.toBinary(binary);
+        solved = new RouteFinder(maze);
+        solved.solve();
+        route = Files.createTempFile("maze", ".route");
+        solved.save(route.toString());
+    }
+
+    /**
+    * Method that deletes the files of the trial.
+    */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(route);
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks.jmh;
+
+import benchmarks.MazeGenerator;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import maze.Maze;
+import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks that measure whole solves of large open mazes, floors with scattered walls where many shortest routes are
+* equally good, by the strategies that find shortest routes. Besides the time per solve, the number of cells expanded
+* per solve is reported, which is what {@link maze.routing.JumpPointSearch} saves over {@link maze.routing.AStarSearch}.
+* @author Marius Traian Hostinar
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OpenMapBenchmark {
+
+    /**
+    * Benchmark state that holds one generated open maze of every size and wall density, and the strategy solving it.
+    */
+    @State(Scope.Benchmark)
+    public static class OpenMaze {
+
+        @Param({"256", "1024", "4096"})
+        public int size;
+
+        @Param({"0.0", "0.1"})
+        public double wallDensity;
+
+        @Param({"bfs", "astar", "jps", "hpa"})
+        public String strategy;
+
+        public Maze maze;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            Path text = MazeGenerator.writeTemporary(MazeGenerator.open(size, size, wallDensity, 42));
+            try {
+                maze = Maze.fromTxt(text.toString());
+            } finally {
+                Files.deleteIfExists(text);
+            }
+        }
+    }
+
+    /**
+    * Counters reported next to the time per solve, as events summed over each iteration.
+    */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Expansions {
+
+        public long expanded;
+        public long solves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            expanded = 0;
+            solves = 0;
+        }
+    }
+
+    @Benchmark
+    public RouteFinder solve(OpenMaze state, Expansions expansions) throws Exception {
+        RouteFinder routeFinder = new RouteFinder(state.maze, SearchStrategies.create(state.strategy));
+        routeFinder.solve();
+        expansions.expanded += routeFinder.getState().getExpandedCount();
+        expansions.solves++;
+        return routeFinder;
+    }
+}
@@ -0,0 +1,39 @@
+package benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+import maze.Maze;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks that measure the throughput of loading a maze from its text file, by parsing or mapping it,
+* and from its binary file.
+* @author Marius Traian Hostinar
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParseBenchmark {
+
+    @Benchmark
+    public Maze fromTxt(MazeState state) throws Exception {
+        return Maze.fromTxt(state.text.toString());
+    }
+
+    @Benchmark
+    public Maze mapTxt(MazeState state) throws Exception {
+        return Maze.mapTxt(state.text);
+    }
+
+    @Benchmark
+    public Maze fromBinary(MazeState state) throws Exception {
+        return Maze.fromBinary(state.binary);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks.jmh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import maze.routing.RouteFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks that measure the throughput of saving and loading a solved route, and of writing a binary maze.
+* @author Marius Traian Hostinar
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersistenceBenchmark {
+
+    /**
+    * Benchmark state that holds the files written by the benchmarks, overwritten by every invocation.
+    */
+    @State(Scope.Thread)
+    public static class Output {
+
+        Path route;
+        Path binary;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            route = Files.createTempFile("maze", ".route");
+            binary = Files.createTempFile("maze", ".maze");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            Files.deleteIfExists(route);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Benchmark
+    public void save(MazeState state, Output output) throws Exception {
+        state.solved.save(output.route.toString());
+    }
+
+    @Benchmark
+    public RouteFinder load(MazeState state) throws Exception {
+        return RouteFinder.load(state.route.toString());
+    }
+
+    @Benchmark
+    public void toBinary(MazeState state, Output output) throws Exception {
+        state.maze.toBinary(output.binary);
+    }
+}
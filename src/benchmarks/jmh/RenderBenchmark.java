@@ -0,0 +1,32 @@
+package benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks that measure the throughput of the text rendering of a maze and of a solved route.
+* @author Marius Traian Hostinar
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RenderBenchmark {
+
+    @Benchmark
+    public String mazeToString(MazeState state) {
+        return state.maze.toString();
+    }
+
+    @Benchmark
+    public String routeFinderToString(MazeState state) {
+        return state.solved.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+* Command line tool that prints the scaling curves of a JMH run from its CSV results: for every benchmark and
+* combination of the other parameters, the throughput and allocated bytes per operation at each maze size, and the
+* growth exponent of the time per operation against the number of cells (1 is linear, 2 is quadratic).
+* @author Marius Traian Hostinar
+*/
+public class ScalingReport {
+
+    private static final String SIZE = "Param: size";
+    private static final String ALLOCATION = ":gc.alloc.rate.norm";
+
+    /**
+    * Main function that reads the CSV results given as argument and prints one table per curve.
+    */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java benchmarks.jmh.ScalingReport <results.csv>");
+            return;
+        }
+        List<String> lines = Files.readAllLines(Paths.get(args[0]));
+        if (lines.isEmpty())
+            return;
+        String[] header = split(lines.get(0));
+        int sizeColumn = -1;
+        for (int i = 0; i < header.length; i++)
+            if (header[i].equals(SIZE))
+                sizeColumn = i;
+        if (sizeColumn < 0)
+            return;
+
+        // curve name -> size -> {ops/s, B/op}
+        Map<String, Map<Integer, double[]>> curves = new TreeMap<String, Map<Integer, double[]>>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] row = split(line);
+            String benchmark = row[0];
+            boolean allocation = benchmark.endsWith(ALLOCATION);
+            if (benchmark.contains(":") && !allocation)
+                continue;
+            String curve = allocation ? benchmark.substring(0, benchmark.length() - ALLOCATION.length()) : benchmark;
+            for (int i = 0; i < row.length; i++)
+                if (i != sizeColumn && header[i].startsWith("Param: ") && !row[i].isEmpty())
+                    curve += " " + header[i].substring("Param: ".length()) + "=" + row[i];
+            double[] point = curves.computeIfAbsent(curve, key -> new TreeMap<Integer, double[]>())
+                .computeIfAbsent(Integer.parseInt(row[sizeColumn]), key -> new double[] {Double.NaN, Double.NaN});
+            point[allocation ? 1 : 0] = Double.parseDouble(row[4]);
+        }
+
+        for (Map.Entry<String, Map<Integer, double[]>> curve : curves.entrySet()) {
+            System.out.println();
+            System.out.println(curve.getKey());
+            System.out.println("     size          ops/s          B/op   exponent");
+            Integer previous = null;
+            for (Map.Entry<Integer, double[]> point : curve.getValue().entrySet()) {
+                int size = point.getKey();
+                double[] scores = point.getValue();
+                String exponent = "";
+                if (previous != null) {
+                    double[] before = curve.getValue().get(previous);
+                    // The time per operation is the inverse of the throughput, the cells grow with the square of the size.
+                    exponent = String.format(" %10.2f", Math.log(before[0] / scores[0]) / Math.log((double) size * size / previous / previous));
+                }
+                System.out.println(String.format("%9d %14.3f %13.0f%s", size, scores[0], scores[1], exponent));
+                previous = size;
+            }
+        }
+    }
+
+    private static String[] split(String line) {
+        List<String> fields = new ArrayList<String>();
+        for (String field : line.split(",", -1))
+            fields.add(field.startsWith("\"") && field.endsWith("\"") && field.length() > 1 ? field.substring(1, field.length() - 1) : field);
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks that measure the throughput of single {@link RouteFinder#step()} calls and of whole solves,
+* for every {@link maze.routing.SearchStrategy}.
+* @author Marius Traian Hostinar
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StepBenchmark {
+
+    /**
+    * Benchmark state that holds the search being stepped, started again whenever it finishes.
+    */
+    @State(Scope.Thread)
+    public static class Search {
+
+        @Param({"dfs", "bfs", "astar", "bidirectional", "jps", "hpa"})
+        public String strategy;
+
+        RouteFinder routeFinder;
+
+        @Setup(Level.Iteration)
+        public void setUp(MazeState state) {
+            routeFinder = new RouteFinder(state.maze, SearchStrategies.create(strategy));
+        }
+    }
+
+    @Benchmark
+    public boolean step(MazeState state, Search search) throws Exception {
+        // A search finishes after at most one step per cell, so starting it again is amortised over those steps.
+        if (search.routeFinder.isFinished())
+            search.routeFinder = new RouteFinder(state.maze, SearchStrategies.create(search.strategy));
+        return search.routeFinder.step();
+    }
+
+    @Benchmark
+    public RouteFinder solve(MazeState state, Search search) throws Exception {
+        RouteFinder routeFinder = new RouteFinder(state.maze, SearchStrategies.create(search.strategy));
+        routeFinder.solve();
+        return routeFinder;
+    }
+}
@@ -0,0 +1,92 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+* Class that holds the distance field of a {@link MazeGrid} towards its exit, filled by one breadth first search from
+* the exit. Any cell that reaches the exit gets a shortest route by going, at every step, to the neighbour one step
+* closer, so a route is found in a time proportional to its length.
+* Neighbouring cells are at most one step apart, so the neighbour one step closer is told apart by the distance modulo 3,
+* and only that is kept, in one byte per cell.
+* @author Marius Traian Hostinar
+*/
+final class ExitDistances {
+
+    private static final byte UNREACHED = -1;
+
+    private final int modifications;
+    private final int exit;
+    private final byte[] residues;
+
+    private ExitDistances(int modifications, int exit, byte[] residues) {
+        this.modifications = modifications;
+        this.exit = exit;
+        this.residues = residues;
+    }
+
+    /**
+    * Method that fills the distance field of a grid.
+    * @param grid The {@link MazeGrid} to search.
+    * @param exit The index of the exit cell.
+    * @return Returns the distance field of the grid as it is now.
+    */
+    static ExitDistances compute(MazeGrid grid, int exit) {
+        byte[] residues = new byte[grid.getSize()];
+        Arrays.fill(residues, UNREACHED);
+        // Every cell is queued at most once, so the queue never outgrows the grid.
+        int[] queue = new int[grid.getSize()];
+        int[] neighbours = new int[4];
+        residues[exit] = 0;
+        queue[0] = exit;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            byte residue = (byte) ((residues[cell] + 1) % 3);
+            for (int i = grid.getNavigableNeighbours(cell, neighbours) - 1; i >= 0; i--) {
+                int next = neighbours[i];
+                if (residues[next] != UNREACHED)
+                    continue;
+                residues[next] = residue;
+                queue[tail++] = next;
+            }
+        }
+        return new ExitDistances(grid.getModificationCount(), exit, residues);
+    }
+
+    /**
+    * Method that checks if the field still describes a grid, which is no longer the case once one of its cells is set.
+    * @param grid The {@link MazeGrid} that was searched.
+    * @param exit The index of the exit cell.
+    * @return Returns a boolean True if no cell of the grid was set since it was searched from the same exit.
+    */
+    boolean isCurrent(MazeGrid grid, int exit) {
+        return grid.getModificationCount() == modifications && this.exit == exit;
+    }
+
+    /**
+    * Method that checks if a cell reaches the exit.
+    * @param index The index of the cell.
+    * @return Returns a boolean True if a route links the cell to the exit.
+    */
+    boolean reaches(int index) {
+        return residues[index] != UNREACHED;
+    }
+
+    /**
+    * Method that gets the next cell of a shortest route to the exit.
+    * @param grid The {@link MazeGrid} that was searched.
+    * @param index The index of a cell that reaches the exit.
+    * @param neighbours An array of at least 4 cells, overwritten.
+    * @return Returns the index of a neighbour one step closer to the exit, or -1 if the cell is the exit.
+    */
+    int next(MazeGrid grid, int index, int[] neighbours) {
+        if (index == exit)
+            return -1;
+        int closer = (residues[index] + 2) % 3;
+        for (int i = grid.getNavigableNeighbours(index, neighbours) - 1; i >= 0; i--)
+            if (residues[neighbours[i]] == closer)
+                return neighbours[i];
+        return -1;
+    }
+}
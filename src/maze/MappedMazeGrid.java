@@ -0,0 +1,72 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+* Class that serves the cells of a {@link MazeGrid} straight from a memory-mapped text maze, so a maze larger than
+* the heap can be solved. The file is mapped read-only in segments of at most 1 GiB; cells set after loading are
+* kept on the heap and never written to the file.
+* @author Marius Traian Hostinar
+*/
+final class MappedMazeGrid extends MazeGrid {
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final ByteBuffer[] segments;
+    private final long[] lineOffsets;
+    private Map<Integer, Byte> changes;
+
+    /**
+    * Constructor for a grid over a validated, mapped text maze.
+    * @param width The number of columns of the grid.
+    * @param height The number of rows of the grid.
+    * @param segments The mapped segments of the file, as returned by {@link #map(FileChannel)}.
+    * @param lineOffsets The offset in the file of every line, the first line of the file (the top row) first.
+    */
+    MappedMazeGrid(int width, int height, ByteBuffer[] segments, long[] lineOffsets) {
+        super(width, height, null);
+        this.segments = segments;
+        this.lineOffsets = lineOffsets;
+    }
+
+    /**
+    * Method that maps a whole file read-only.
+    * @param channel The channel of the file, the mapping stays valid after it is closed.
+    * @return Returns the mapped segments of the file, in file order.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    static ByteBuffer[] map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer[] segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, size - position));
+        }
+        return segments;
+    }
+
+    @Override
+    byte cell(int index) {
+        if (changes != null) {
+            Byte code = changes.get(index);
+            if (code != null)
+                return code;
+        }
+        int width = getWidth();
+        long offset = lineOffsets[getHeight() - 1 - index / width] + index % width;
+        return MazeParser.decode(segments[(int) (offset >>> SEGMENT_SHIFT)].get((int) (offset & SEGMENT_MASK)));
+    }
+
+    @Override
+    void setCell(int index, byte code) {
+        if (changes == null)
+            changes = new HashMap<Integer, Byte>();
+        changes.put(index, code);
+    }
+}
@@ -1,28 +1,53 @@
 package maze;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
-import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
  
 /**
 * {@link Serializable} class that deals with the maze which is an object representing the maze to be solved.
+* The cells are stored in a packed {@link MazeGrid}; {@link Tile} instances are only created when they are asked for.
 * @author Marius Traian Hostinar
 */
 public class Maze implements Serializable{
 
+    private static final long serialVersionUID = -8012187595488018569L;
+
+    // Keeps the serialized form identical to the one written before the MazeGrid was introduced.
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("entrance", Tile.class),
+        new ObjectStreamField("exit", Tile.class),
+        new ObjectStreamField("tiles", List.class)
+    };
+
     private Tile entrance;
     private Tile exit;
     private List<List<Tile>> tiles;
+    private transient MazeGrid grid;
+    private transient Tile[][] materialised;
+    private transient MazeComponents components;
+    private transient ExitDistances exitDistances;
 
     /**
-    * Constructor that creates a maze by initializing an {@link ArrayList} of {@link List} of {@link Tile}.
+    * Constructor that creates a maze with a {@link List} view over its (not yet loaded) {@link MazeGrid}.
     */
     private Maze(){
-        tiles = new ArrayList<List<Tile>>();
+        tiles = new TileRows();
     }
 
     /**
@@ -34,43 +59,111 @@ public class Maze implements Serializable{
     * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
     */
     public static Maze fromTxt(String text) throws IOException, FileNotFoundException, InvalidMazeException {
-        Maze maze = new Maze();
- 
-        try (BufferedReader br = new BufferedReader(new FileReader(text)))
-        {
-            String mazeLine;
-            while ((mazeLine = br.readLine()) != null) { 
-                List<Tile> mazeRow = new ArrayList<Tile>();
-                if(maze.tiles.size() > 0 && mazeLine.length() != maze.tiles.get(0).size())
-                    throw new RaggedMazeException(); 
-                maze.tiles.add(0, mazeRow);
-                 
-                for(int i = 0; i < mazeLine.length(); i++){
-                    Tile tile = Tile.fromChar(mazeLine.charAt(i));
-                    mazeRow.add(tile);
-                    if (tile.getType() == Tile.Type.ENTRANCE)
-                        if (maze.getEntrance() == null)
-                            maze.setEntrance(tile);
-                        else 
-                            throw new MultipleEntranceException();
-                    if (tile.getType() == Tile.Type.EXIT)
-                        if (maze.getExit() == null)
-                            maze.setExit(tile);
-                        else 
-                            throw new MultipleExitException();    
-                }
-            }
-            if(maze.getEntrance() == null){
-                throw new NoEntranceException();
-            }
-            if(maze.getExit() == null){
-                throw new NoExitException();
-            }
-        } catch (FileNotFoundException exception) {
-            throw exception;
-        } catch (IOException exception) {
-            throw exception;
+        MazeParser parser;
+        try (FileInputStream in = new FileInputStream(text)) {
+            parser = MazeParser.parse(in.getChannel());
+        }
+        return fromGrid(parser.getGrid(), parser.getEntrance(), parser.getExit());
+    }
+
+    /**
+    * Method that reads a text maze from a stream, such as the body of a request, the same way {@link #fromTxt(String)} reads a file.
+    * @param in The {@link InputStream} of a maze in text form, read to its end and not closed.
+    * @return Returns a maze made out of multiple {@link Tile} instances.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
+    */
+    public static Maze fromTxt(InputStream in) throws IOException, InvalidMazeException {
+        MazeParser parser = MazeParser.parse(Channels.newChannel(in));
+        return fromGrid(parser.getGrid(), parser.getEntrance(), parser.getExit());
+    }
+
+    /**
+    * Method that memory-maps a text maze instead of loading it on the heap, for mazes too large to be read.
+    * The file is validated in one scan and the {@link Tile} instances are read straight from the mapped file.
+    * Tiles set afterwards are kept in memory, the file is never written.
+    * @param path The {@link Path} of a maze in text form.
+    * @return Returns a maze made out of multiple {@link Tile} instances.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
+    */
+    public static Maze mapTxt(Path path) throws IOException, InvalidMazeException {
+        MazeParser parser;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            parser = MazeParser.map(channel);
         }
+        return fromGrid(parser.getGrid(), parser.getEntrance(), parser.getExit());
+    }
+
+    /**
+    * Method that loads a maze written by {@link #toBinary(Path)}. The file is mapped and its packed cells are
+    * unpacked straight into the {@link MazeGrid}, nothing is parsed.
+    * @param path The {@link Path} of a binary maze.
+    * @return Returns a maze made out of multiple {@link Tile} instances.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws InvalidMazeException Indicates the file is not a binary maze or the {@link Maze} is invalid.
+    */
+    public static Maze fromBinary(Path path) throws IOException, InvalidMazeException {
+        MazeBinary binary;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            binary = MazeBinary.read(channel);
+        }
+        return fromGrid(binary.getGrid(), binary.getEntrance(), binary.getExit());
+    }
+
+    /**
+    * Method that reads a maze in the binary maze format from a buffer, for files that embed a maze.
+    * @param buffer The {@link ByteBuffer} positioned at the start of the maze, left positioned right after it.
+    * @return Returns a maze made out of multiple {@link Tile} instances.
+    * @throws EOFException Indicates the buffer ends before the maze does.
+    * @throws InvalidMazeException Indicates the buffer does not hold a binary maze or the {@link Maze} is invalid.
+    */
+    public static Maze fromBinary(ByteBuffer buffer) throws EOFException, InvalidMazeException {
+        MazeBinary binary = MazeBinary.read(buffer);
+        return fromGrid(binary.getGrid(), binary.getEntrance(), binary.getExit());
+    }
+
+    /**
+    * Method that writes the maze in the binary maze format: a header with the dimensions and the location of the
+    * entrance and exit, followed by 2 bits per cell.
+    * @param path The {@link Path} of the file to write, replaced if it exists.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws IllegalStateException Indicates the entrance or the exit is no longer part of the {@link Maze}.
+    */
+    public void toBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            toBinary(channel);
+        }
+    }
+
+    /**
+    * Method that writes the maze in the binary maze format to a channel, for files that embed a maze.
+    * @param channel The {@link WritableByteChannel} to write to, it is not closed.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws IllegalStateException Indicates the entrance or the exit is no longer part of the {@link Maze}.
+    */
+    public void toBinary(WritableByteChannel channel) throws IOException {
+        int entranceIndex = indexOf(entrance);
+        int exitIndex = indexOf(exit);
+        if(entranceIndex < 0 || exitIndex < 0)
+            throw new IllegalStateException("The maze has no entrance or no exit!");
+        MazeBinary.write(grid, entranceIndex, exitIndex, channel);
+    }
+
+    /**
+    * Method that builds a maze from a loaded grid.
+    * @param grid The {@link MazeGrid} of the maze.
+    * @param entrance The index of the entrance in the grid.
+    * @param exit The index of the exit in the grid.
+    * @return Returns the maze backed by the {@link MazeGrid}.
+    * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
+    */
+    private static Maze fromGrid(MazeGrid grid, int entrance, int exit) throws InvalidMazeException{
+        Maze maze = new Maze();
+        maze.setGrid(grid);
+        maze.setEntrance(maze.tileAt(grid.getX(entrance), grid.getY(entrance)));
+        maze.setExit(maze.tileAt(grid.getX(exit), grid.getY(exit)));
         return maze;
     }
 
@@ -81,21 +174,14 @@ public class Maze implements Serializable{
     * @return Returns a {@link Tile} Adjecent to the current (inputted) {@link Tile}.
     */
     public Tile getAdjacentTile(Tile tile, Direction dir){
-        Coordinate currentCoordinates = getTileLocation(tile);
-        int newCoordinateForX = currentCoordinates.getX();
-        int newCoordinateForY = currentCoordinates.getY();
+        int index = indexOf(tile);
+        if(index < 0)
+            return null;
 
-        if(dir == Direction.NORTH)
-            newCoordinateForY = newCoordinateForY + 1;
-        else if(dir == Direction.SOUTH)
-            newCoordinateForY = newCoordinateForY - 1;
-        else if(dir == Direction.EAST)
-            newCoordinateForX = newCoordinateForX + 1;
-        else
-            newCoordinateForX = newCoordinateForX - 1;
-        
-        Coordinate newCoordinates = new Coordinate(newCoordinateForX, newCoordinateForY);
-        return getTileAtLocation(newCoordinates);
+        index = grid.getAdjacentIndex(index, dir);
+        if(index < 0)
+            return null;
+        return tileAt(grid.getX(index), grid.getY(index));
     }
 
     /**
@@ -114,14 +200,22 @@ public class Maze implements Serializable{
         return exit;
     }
 
+    /**
+    * Method that gets the packed {@link MazeGrid} holding the cells of the {@link Maze}.
+    * @return Returns the {@link MazeGrid} of the {@link Maze}.
+    */
+    public MazeGrid getGrid(){
+        return grid;
+    }
+
     /**
     * Method that gets the {@link Tile} at a specific inputted {@link Coordinate}. 
     * @param coord A specific {@link Coordinate}.
     * @return Returns a {@link Tile} at the specified location.
     */
     public Tile getTileAtLocation(Coordinate coord){
-        if(coord.getY() < tiles.size() && coord.getX() < tiles.get(0).size() && coord.getY() >= 0 && coord.getX() >= 0)
-            return tiles.get(coord.getY()).get(coord.getX());
+        if(grid.contains(coord.getX(), coord.getY()))
+            return tileAt(coord.getX(), coord.getY());
         else 
             return null;
     }
@@ -132,15 +226,116 @@ public class Maze implements Serializable{
     * @return Returns the location of a given {@link Tile}.
     */
     public Coordinate getTileLocation(Tile tile){
-        for (int y = tiles.size() - 1; y >= 0 ; y-- )
-            for (int x = 0; x < tiles.get(y).size(); x++)
-                if(tiles.get(y).get(x).equals(tile))
-                    return new Coordinate(x, y);
-        return null;
+        int index = indexOf(tile);
+        if(index < 0)
+            return null;
+        return new Coordinate(grid.getX(index), grid.getY(index));
+    }
+
+    /**
+    * Method that checks if a route can go from the entrance to the exit, without searching it.
+    * The connected components of the {@link Maze} are labelled in one pass the first time, and again once a {@link Tile} is set.
+    * @return Returns a boolean True if the entrance and the exit are connected and a boolean False if they are not.
+    */
+    public boolean isSolvable(){
+        int entranceIndex = indexOf(entrance);
+        int exitIndex = indexOf(exit);
+        if(entranceIndex < 0 || exitIndex < 0)
+            return false;
+        MazeComponents labels = getComponents();
+        return labels.componentOf(entranceIndex) >= 0 && labels.componentOf(entranceIndex) == labels.componentOf(exitIndex);
+    }
+
+    /**
+    * Method that gets the connected component of a location, two navigable locations being in the same component when a
+    * route can go from one to the other.
+    * @param coord A given {@link Coordinate}.
+    * @return Returns the label of the component, numbered from 0, or -1 if the location is a wall or outside the {@link Maze}.
+    */
+    public int componentOf(Coordinate coord){
+        if(coord == null || !grid.contains(coord.getX(), coord.getY()))
+            return -1;
+        return getComponents().componentOf(grid.indexOf(coord.getX(), coord.getY()));
+    }
+
+    /**
+    * Method that builds the indexes behind {@link #isSolvable()}, {@link #componentOf(Coordinate)},
+    * {@link #routeToExit(Coordinate)} and {@link #distanceToExit(Coordinate)} now rather than on first use, so the
+    * queries made afterwards, possibly from several threads, find them built.
+    */
+    public void buildIndexes(){
+        getComponents();
+        getExitDistances();
+    }
+
+    /**
+    * Method that gets the labelled components of the {@link MazeGrid}, labelling them again if a cell was set since.
+    * @return Returns the current {@link MazeComponents}.
+    */
+    private MazeComponents getComponents(){
+        if(components == null || !components.isCurrent(grid))
+            components = MazeComponents.label(grid);
+        return components;
+    }
+
+    /**
+    * Method that gets a shortest route from a location to the exit, in a time proportional to its length.
+    * The distances to the exit are found in one pass the first time, and again once a {@link Tile} is set.
+    * @param start A given {@link Coordinate} the route starts from.
+    * @return Returns the {@link Coordinate} of every location of the route from the start to the exit, or an empty
+    * {@link List} if the location is a wall, outside the {@link Maze}, or not connected to the exit.
+    */
+    public List<Coordinate> routeToExit(Coordinate start){
+        List<Coordinate> route = new ArrayList<Coordinate>();
+        ExitDistances distances = getExitDistances();
+        if(distances == null || start == null || !grid.contains(start.getX(), start.getY()))
+            return route;
+        int index = grid.indexOf(start.getX(), start.getY());
+        if(!distances.reaches(index))
+            return route;
+        int[] neighbours = new int[4];
+        for(; index >= 0; index = distances.next(grid, index, neighbours))
+            route.add(new Coordinate(grid.getX(index), grid.getY(index)));
+        return route;
+    }
+
+    /**
+    * Method that gets the length of a shortest route from a location to the exit, see {@link #routeToExit(Coordinate)}.
+    * @param start A given {@link Coordinate} the route starts from.
+    * @return Returns the number of steps from the location to the exit, or -1 if there is no such route.
+    */
+    public int distanceToExit(Coordinate start){
+        ExitDistances distances = getExitDistances();
+        if(distances == null || start == null || !grid.contains(start.getX(), start.getY()))
+            return -1;
+        int index = grid.indexOf(start.getX(), start.getY());
+        if(!distances.reaches(index))
+            return -1;
+        int[] neighbours = new int[4];
+        int steps = 0;
+        for(index = distances.next(grid, index, neighbours); index >= 0; index = distances.next(grid, index, neighbours))
+            steps++;
+        return steps;
+    }
+
+    /**
+    * Method that gets the distances to the exit of the {@link MazeGrid}, searching them again if a cell was set since.
+    * @return Returns the current {@link ExitDistances}, or null if the {@link Maze} has no exit.
+    */
+    private ExitDistances getExitDistances(){
+        int exitIndex = indexOf(exit);
+        if(exitIndex < 0)
+            return null;
+        if(exitDistances == null || !exitDistances.isCurrent(grid, exitIndex))
+            exitDistances = ExitDistances.compute(grid, exitIndex);
+        return exitDistances;
     }
 
     /**
     * Method that gets the {@link Tile} of the {@link Maze}.
+    * The returned {@link List} is a view over the {@link MazeGrid} that hands out the shared flyweight {@link Tile} of each
+    * {@link Tile.Type}, so traversing it creates no object; use {@link #getTileAtLocation(Coordinate)} for a {@link Tile}
+    * that can be located.
     * @return Returns a {@link List} of {@link List} of {@link Tile} that represent the tiles that make the {@link Maze}.
     */
     public List<List<Tile>> getTiles(){
@@ -181,25 +376,182 @@ public class Maze implements Serializable{
         }
     }
 
+    /**
+    * Method that sets the {@link MazeGrid} backing the {@link Maze} and drops every located {@link Tile}.
+    * @param grid The new {@link MazeGrid}.
+    */
+    private void setGrid(MazeGrid grid){
+        this.grid = grid;
+        this.materialised = new Tile[grid.getHeight()][];
+    }
+
+    /**
+    * Method that gets the index of a {@link Tile} in the {@link MazeGrid} in constant time.
+    * @param tile A given {@link Tile}.
+    * @return Returns the index of the {@link Tile} or -1 if the {@link Tile} is not part of the {@link Maze}.
+    */
+    private int indexOf(Tile tile){
+        if(tile == null || tile.index < 0 || tile.index >= grid.getSize())
+            return -1;
+        // The index alone is not enough, the tile could have been placed in another maze.
+        Tile[] row = materialised[grid.getY(tile.index)];
+        if(row == null || row[grid.getX(tile.index)] != tile)
+            return -1;
+        return tile.index;
+    }
+
+    /**
+    * Method that gets the {@link Tile} at a location inside the grid, creating it the first time it is located.
+    * @param x The column number.
+    * @param y The row number.
+    * @return Returns the {@link Tile} at the given location, always the same instance for the same location.
+    */
+    private Tile tileAt(int x, int y){
+        Tile[] row = materialised[y];
+        if(row == null)
+            row = materialised[y] = new Tile[grid.getWidth()];
+        Tile tile = row[x];
+        if(tile == null) {
+            tile = row[x] = Tile.fromType(grid.getType(grid.indexOf(x, y)));
+            tile.index = grid.indexOf(x, y);
+        }
+        return tile;
+    }
+
+    /**
+    * Method that writes the {@link Maze} in the same form as a {@link Maze} backed by nested lists.
+    * @param out The {@link ObjectOutputStream} to write to.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // The nested lists hold one Tile per cell, reusing the located ones so the entrance, exit and routes refer to them.
+        List<List<Tile>> rows = new ArrayList<List<Tile>>(grid.getHeight());
+        for (int y = 0; y < grid.getHeight(); y++) {
+            List<Tile> row = new ArrayList<Tile>(grid.getWidth());
+            for (int x = 0; x < grid.getWidth(); x++) {
+                Tile tile = materialised[y] == null ? null : materialised[y][x];
+                row.add(tile != null ? tile : Tile.fromType(grid.getType(grid.indexOf(x, y))));
+            }
+            rows.add(row);
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("entrance", entrance);
+        fields.put("exit", exit);
+        fields.put("tiles", rows);
+        out.writeFields();
+    }
+
+    /**
+    * Method that reads a {@link Maze} written as nested lists and packs it into a {@link MazeGrid}.
+    * @param in The {@link ObjectInputStream} to read from.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws ClassNotFoundException Indicates no definition for a serialized class could be found.
+    */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        List<List<Tile>> rows = (List<List<Tile>>) fields.get("tiles", null);
+        entrance = (Tile) fields.get("entrance", null);
+        exit = (Tile) fields.get("exit", null);
+        tiles = new TileRows();
+
+        setGrid(new MazeGrid(rows.isEmpty() ? 0 : rows.get(0).size(), rows.size()));
+        for (int y = 0; y < rows.size(); y++) {
+            List<Tile> row = rows.get(y);
+            // The deserialized tiles are shared with the route, so they are kept rather than recreated.
+            materialised[y] = row.toArray(new Tile[row.size()]);
+            for (int x = 0; x < row.size(); x++) {
+                grid.setType(grid.indexOf(x, y), row.get(x).getType());
+                row.get(x).index = grid.indexOf(x, y);
+            }
+        }
+    }
+
     /**
     * Method that transforms the {@link Coordinate} to a {@link String}. 
     * @return Returns a {@link String} that represents the {@link Maze} in a text form.
     */
     @Override
     public String toString() {
-        String result = "";
-        for (int y = tiles.size() - 1; y >= 0 ; y--){
-            result += Integer.toString(y) + "    ";
-            for (int x = 0; x < tiles.get(y).size(); x++){  
-                Tile tile = tiles.get(y).get(x);
-                result += (tile.toString()) + " ";
+        StringBuilder result = new StringBuilder(grid.getTextLength());
+        try {
+            writeTo(result);
+        } catch (IOException exception) {
+            // A StringBuilder never fails to append.
+            throw new IllegalStateException(exception);
+        }
+        return result.toString();
+    }
+
+    /**
+    * Method that writes the text form of the {@link Maze}, the same as {@link #toString()}, one row at a time so
+    * mazes whose text does not fit in memory can be written to a file.
+    * @param out The sink of the text, a file should be written through a buffered {@link java.io.Writer}.
+    * @throws IOException Indicates failed or interrupted I/O operations of the sink.
+    */
+    public void writeTo(Appendable out) throws IOException {
+        grid.writeTo(out, grid::getSymbol);
+    }
+
+    /**
+    * {@link List} view over the rows of the {@link MazeGrid}, row 0 being the bottom row.
+    */
+    private class TileRows extends AbstractList<List<Tile>> {
+
+        @Override
+        public List<Tile> get(int y) {
+            if (y < 0 || y >= size())
+                throw new IndexOutOfBoundsException("Row " + y + " is outside the maze!");
+            return new TileRow(y);
+        }
+
+        @Override
+        public int size() {
+            return grid == null ? 0 : grid.getHeight();
+        }
+    }
+
+    /**
+    * {@link List} view over one row of the {@link MazeGrid}, writing through to the grid.
+    */
+    private class TileRow extends AbstractList<Tile> {
+
+        private final int y;
+
+        private TileRow(int y) {
+            this.y = y;
+        }
+
+        @Override
+        public Tile get(int x) {
+            if (x < 0 || x >= size())
+                throw new IndexOutOfBoundsException("Column " + x + " is outside the maze!");
+            return Tile.flyweight(grid.getType(grid.indexOf(x, y)));
+        }
+
+        @Override
+        public Tile set(int x, Tile tile) {
+            Tile previous = get(x);
+            int index = grid.indexOf(x, y);
+            // A Tile of its own is placed at the location, a flyweight only gives the location its Type.
+            if (tile.isFlyweight()) {
+                if (materialised[y] != null)
+                    materialised[y][x] = null;
+            } else {
+                if (materialised[y] == null)
+                    materialised[y] = new Tile[grid.getWidth()];
+                materialised[y][x] = tile;
+                tile.index = index;
             }
-            result += "\n";
+            grid.setType(index, tile.getType());
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return grid.getWidth();
         }
-        result += "\n" + "     ";
-        for(int i = 0; i < tiles.get(0).size(); i++)
-            result += Integer.toString(i) + " ";
-        return result;
     }
 
     /**
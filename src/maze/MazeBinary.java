@@ -0,0 +1,179 @@
+package maze;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+
+/**
+* Class that reads and writes the binary maze format. A file starts with a 32 byte big-endian header: the magic
+* number "MAZE", the format version, the width, the height, then the x and y of the entrance and of the exit.
+* The cells follow, 2 bits each holding the {@link Tile.Type} ordinal, row-major from the bottom row like a
+* {@link MazeGrid}, four cells per byte starting from the lowest bits.
+* @author Marius Traian Hostinar
+*/
+final class MazeBinary {
+
+    static final int MAGIC = 0x4d415a45;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final byte ENTRANCE = (byte) Tile.Type.ENTRANCE.ordinal();
+    private static final byte EXIT = (byte) Tile.Type.EXIT.ordinal();
+    private static final byte[] ENTRANCES = new byte[256];
+    private static final byte[] EXITS = new byte[256];
+
+    static {
+        for (int packed = 0; packed < 256; packed++) {
+            for (int shift = 0; shift < 8; shift += 2) {
+                int code = (packed >>> shift) & 3;
+                if (code == ENTRANCE)
+                    ENTRANCES[packed]++;
+                else if (code == EXIT)
+                    EXITS[packed]++;
+            }
+        }
+    }
+
+    private MazeGrid grid;
+    private int entrance;
+    private int exit;
+
+    private MazeBinary() {
+    }
+
+    /**
+    * Method that reads a whole binary maze by mapping its file, unpacking the cells straight into a {@link MazeGrid}.
+    * @param channel The channel of the file to read, it can be closed once the method returns.
+    * @return Returns the reader holding the {@link MazeGrid} and the location of the entrance and exit.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws EOFException Indicates the file ends before the header or the cells do.
+    * @throws InvalidMazeException Indicates the file is not a binary maze or the {@link Maze} is invalid.
+    */
+    static MazeBinary read(FileChannel channel) throws IOException, InvalidMazeException {
+        return read(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    /**
+    * Method that reads a binary maze from a buffer, unpacking the cells straight into a {@link MazeGrid}.
+    * @param buffer The buffer positioned at the start of the binary maze, left positioned right after it.
+    * @return Returns the reader holding the {@link MazeGrid} and the location of the entrance and exit.
+    * @throws EOFException Indicates the buffer ends before the header or the cells do.
+    * @throws InvalidMazeException Indicates the buffer does not hold a binary maze or the {@link Maze} is invalid.
+    */
+    static MazeBinary read(ByteBuffer buffer) throws EOFException, InvalidMazeException {
+        if (buffer.remaining() < HEADER_SIZE)
+            throw new EOFException("The binary maze header is incomplete!");
+        if (buffer.getInt() != MAGIC)
+            throw new InvalidMazeException("The file is not a binary maze!");
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new InvalidMazeException("Unsupported binary maze version " + version + "!");
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (width < 0 || height < 0 || (long) width * height > Integer.MAX_VALUE - 8)
+            throw new InvalidMazeException("The binary maze dimensions are invalid!");
+        int size = width * height;
+        if (buffer.remaining() - 16 < (size + 3L) / 4)
+            throw new EOFException("The binary maze cells are incomplete!");
+
+        MazeBinary binary = new MazeBinary();
+        binary.grid = new MazeGrid(width, height);
+        binary.entrance = binary.locate(buffer.getInt(), buffer.getInt(), ENTRANCE);
+        binary.exit = binary.locate(buffer.getInt(), buffer.getInt(), EXIT);
+        binary.unpack(buffer, size);
+        return binary;
+    }
+
+    /**
+    * Method that writes a grid as a binary maze.
+    * @param grid The {@link MazeGrid} to write.
+    * @param entrance The index of the entrance in the grid.
+    * @param exit The index of the exit in the grid.
+    * @param channel The channel to write to, it is not closed.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    static void write(MazeGrid grid, int entrance, int exit, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(grid.getWidth()).putInt(grid.getHeight());
+        buffer.putInt(grid.getX(entrance)).putInt(grid.getY(entrance));
+        buffer.putInt(grid.getX(exit)).putInt(grid.getY(exit));
+
+        int size = grid.getSize();
+        for (int i = 0; i < size; i += 4) {
+            int packed = grid.cell(i);
+            for (int k = 1; k < 4 && i + k < size; k++)
+                packed |= grid.cell(i + k) << (k * 2);
+            if (!buffer.hasRemaining())
+                drain(buffer, channel);
+            buffer.put((byte) packed);
+        }
+        drain(buffer, channel);
+    }
+
+    /**
+    * Method that gets the read grid.
+    * @return Returns the {@link MazeGrid} of the binary maze.
+    */
+    MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+    * Method that gets the cell of the entrance.
+    * @return Returns the index of the entrance in the {@link MazeGrid}.
+    */
+    int getEntrance() {
+        return entrance;
+    }
+
+    /**
+    * Method that gets the cell of the exit.
+    * @return Returns the index of the exit in the {@link MazeGrid}.
+    */
+    int getExit() {
+        return exit;
+    }
+
+    private int locate(int x, int y, byte code) throws InvalidMazeException {
+        if (!grid.contains(x, y))
+            throw code == ENTRANCE ? new NoEntranceException() : new NoExitException();
+        return grid.indexOf(x, y);
+    }
+
+    private void unpack(ByteBuffer buffer, int size) throws InvalidMazeException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int entrances = 0;
+        int exits = 0;
+        int cell = 0;
+        while (cell < size) {
+            int length = (int) Math.min(chunk.length, (size - cell + 3L) / 4);
+            buffer.get(chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                int packed = chunk[i] & 0xff;
+                entrances += ENTRANCES[packed];
+                exits += EXITS[packed];
+                for (int shift = 0; shift < 8 && cell < size; shift += 2)
+                    grid.setCell(cell++, (byte) ((packed >>> shift) & 3));
+            }
+        }
+        if (entrances > 1)
+            throw new MultipleEntranceException();
+        if (exits > 1)
+            throw new MultipleExitException();
+        if (entrances == 0 || grid.cell(entrance) != ENTRANCE)
+            throw new NoEntranceException();
+        if (exits == 0 || grid.cell(exit) != EXIT)
+            throw new NoExitException();
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+* Class that labels the connected components of the navigable cells of a {@link MazeGrid}, two cells being connected
+* when a route can go from one to the other. The cells are labelled in one flood fill pass over the grid, so whether
+* a {@link Maze} has a route is known without searching it.
+* @author Marius Traian Hostinar
+*/
+final class MazeComponents {
+
+    private final int modifications;
+    private final int[] labels;
+    private final int count;
+
+    private MazeComponents(int modifications, int[] labels, int count) {
+        this.modifications = modifications;
+        this.labels = labels;
+        this.count = count;
+    }
+
+    /**
+    * Method that labels the components of a grid, numbered from 0 in the order of their first cell.
+    * @param grid The {@link MazeGrid} to label.
+    * @return Returns the components of the grid as it is now.
+    */
+    static MazeComponents label(MazeGrid grid) {
+        int[] labels = new int[grid.getSize()];
+        Arrays.fill(labels, -1);
+        int[] stack = new int[64];
+        int[] neighbours = new int[4];
+        int count = 0;
+        for (int start = 0; start < labels.length; start++) {
+            if (labels[start] >= 0 || !grid.isNavigable(start))
+                continue;
+            labels[start] = count;
+            stack[0] = start;
+            int size = 1;
+            while (size > 0) {
+                int cell = stack[--size];
+                for (int i = grid.getNavigableNeighbours(cell, neighbours) - 1; i >= 0; i--) {
+                    int next = neighbours[i];
+                    if (labels[next] >= 0)
+                        continue;
+                    // Labelled when pushed, so no cell is pushed twice and the stack never outgrows the grid.
+                    labels[next] = count;
+                    if (size == stack.length)
+                        stack = Arrays.copyOf(stack, (int) Math.min(labels.length, 2L * size));
+                    stack[size++] = next;
+                }
+            }
+            count++;
+        }
+        return new MazeComponents(grid.getModificationCount(), labels, count);
+    }
+
+    /**
+    * Method that checks if the labels still describe a grid, which is no longer the case once one of its cells is set.
+    * @param grid The {@link MazeGrid} that was labelled.
+    * @return Returns a boolean True if no cell of the grid was set since it was labelled.
+    */
+    boolean isCurrent(MazeGrid grid) {
+        return grid.getModificationCount() == modifications;
+    }
+
+    /**
+    * Method that gets the component of a cell.
+    * @param index The index of the cell.
+    * @return Returns the label of the component of the cell, or -1 if the cell is a wall.
+    */
+    int componentOf(int index) {
+        return labels[index];
+    }
+
+    /**
+    * Method that gets the number of components.
+    * @return Returns the number of components of the grid.
+    */
+    int getCount() {
+        return count;
+    }
+}
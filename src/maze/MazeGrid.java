@@ -0,0 +1,295 @@
+package maze;
+
+import java.io.IOException;
+import maze.Maze.Direction;
+
+/**
+* Class that stores the cells of a {@link Maze} in one packed, row-major array of bytes (one byte per cell).
+* Row 0 is the bottom row of the {@link Maze}, so a cell index follows the {@link Maze.Coordinate} system.
+* @author Marius Traian Hostinar
+*/
+public class MazeGrid {
+
+    private static final Tile.Type[] TYPES = Tile.Type.values();
+    private static final char[] SYMBOLS = {'.', 'e', 'x', '#'};
+    private static final byte WALL = (byte) Tile.Type.WALL.ordinal();
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private final int width;
+    private final int height;
+    private final int size;
+    private final byte[] cells;
+    private int modifications;
+
+    /**
+    * Constructor that creates an empty grid where every cell is a corridor.
+    * @param width The number of columns of the grid.
+    * @param height The number of rows of the grid.
+    */
+    public MazeGrid(int width, int height) {
+        if (width < 0 || height < 0)
+            throw new IllegalArgumentException("The grid dimensions must not be negative!");
+        this.width = width;
+        this.height = height;
+        this.size = Math.multiplyExact(width, height);
+        this.cells = new byte[size];
+    }
+
+    /**
+    * Constructor that creates a grid over an existing array of cells without copying it.
+    * Subclasses that store the cells elsewhere pass null and override {@link #cell(int)} and {@link #setCell(int, byte)}.
+    * @param width The number of columns of the grid.
+    * @param height The number of rows of the grid.
+    * @param cells The {@link Tile.Type} ordinal of every cell, row-major from the bottom row; extra elements are ignored.
+    */
+    MazeGrid(int width, int height, byte[] cells) {
+        this.width = width;
+        this.height = height;
+        this.size = Math.multiplyExact(width, height);
+        if (cells != null && cells.length < size)
+            throw new IllegalArgumentException("The grid needs " + size + " cells!");
+        this.cells = cells;
+    }
+
+    /**
+    * Method that gets the number of columns of the grid.
+    * @return Returns the width of the grid.
+    */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+    * Method that gets the number of rows of the grid.
+    * @return Returns the height of the grid.
+    */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+    * Method that gets the number of cells of the grid.
+    * @return Returns the width multiplied by the height of the grid.
+    */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+    * Method that checks if a location is inside the grid.
+    * @param x The column number.
+    * @param y The row number.
+    * @return Returns a boolean True if the location is inside the grid and a boolean False if it is not.
+    */
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+    * Method that gets the index of the cell at a given location.
+    * @param x The column number.
+    * @param y The row number.
+    * @return Returns the row-major index of the cell.
+    */
+    public int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+    * Method that gets the column number of a cell.
+    * @param index The index of the cell.
+    * @return Returns the column number of the cell.
+    */
+    public int getX(int index) {
+        return index % width;
+    }
+
+    /**
+    * Method that gets the row number of a cell.
+    * @param index The index of the cell.
+    * @return Returns the row number of the cell.
+    */
+    public int getY(int index) {
+        return index / width;
+    }
+
+    /**
+    * Method that gets the {@link Tile.Type} of a cell.
+    * @param index The index of the cell.
+    * @return Returns the {@link Tile.Type} stored in the cell.
+    */
+    public Tile.Type getType(int index) {
+        return TYPES[cell(index)];
+    }
+
+    /**
+    * Method that sets the {@link Tile.Type} of a cell.
+    * @param index The index of the cell.
+    * @param type The new {@link Tile.Type} of the cell.
+    */
+    public void setType(int index, Tile.Type type) {
+        setCell(index, (byte) type.ordinal());
+        modifications++;
+    }
+
+    /**
+    * Method that gets the number of times a cell was set, so what is computed from the cells can tell when it is stale.
+    * @return Returns the number of calls to {@link #setType(int, Tile.Type)} so far.
+    */
+    public int getModificationCount() {
+        return modifications;
+    }
+
+    /**
+    * Method that checks if a cell is navigable or not (can be in the path).
+    * @param index The index of the cell.
+    * @return Returns a boolean True if the cell is navigable and a boolean False if it is not.
+    */
+    public boolean isNavigable(int index) {
+        return cell(index) != WALL;
+    }
+
+    /**
+    * Method that gets the text symbol of a cell, as used by {@link Tile#toString()}.
+    * @param index The index of the cell.
+    * @return Returns the {@link Character} representing the cell.
+    */
+    public char getSymbol(int index) {
+        return SYMBOLS[cell(index)];
+    }
+
+    /**
+    * Method that gets the index of the next cell in a given {@link Direction}.
+    * @param index The index of the current cell.
+    * @param dir A valid {@link Direction}.
+    * @return Returns the index of the adjacent cell or -1 if it is outside the grid.
+    */
+    public int getAdjacentIndex(int index, Direction dir) {
+        int x = getX(index);
+        int y = getY(index);
+        switch (dir) {
+            case NORTH:
+                return y + 1 < height ? index + width : -1;
+            case SOUTH:
+                return y > 0 ? index - width : -1;
+            case EAST:
+                return x + 1 < width ? index + 1 : -1;
+            default:
+                return x > 0 ? index - 1 : -1;
+        }
+    }
+
+    /**
+    * Method that gets the navigable cells next to a cell, in north, south, east, west order.
+    * @param index The index of the cell.
+    * @param out An array of at least 4 elements that receives the indices of the navigable neighbours.
+    * @return Returns the number of navigable neighbours written to the array.
+    */
+    public int getNavigableNeighbours(int index, int[] out) {
+        int x = index % width;
+        int y = index / width;
+        int count = 0;
+        if (y + 1 < height && cell(index + width) != WALL)
+            out[count++] = index + width;
+        if (y > 0 && cell(index - width) != WALL)
+            out[count++] = index - width;
+        if (x + 1 < width && cell(index + 1) != WALL)
+            out[count++] = index + 1;
+        if (x > 0 && cell(index - 1) != WALL)
+            out[count++] = index - 1;
+        return count;
+    }
+
+    /**
+    * Method that writes the grid in the text form of {@link Maze#toString()}: every row from the top one, prefixed by
+    * its number, then a line of column numbers. The text is written one row at a time, so only a row is held in memory.
+    * @param out The sink of the text, a file should be written through a buffered {@link java.io.Writer}.
+    * @param symbols The {@link Symbols} giving the character written for every cell.
+    * @throws IOException Indicates failed or interrupted I/O operations of the sink.
+    */
+    public void writeTo(Appendable out, Symbols symbols) throws IOException {
+        StringBuilder line = new StringBuilder(2 * width + 16);
+        for (int y = height - 1; y >= 0; y--) {
+            line.setLength(0);
+            line.append(y).append("    ");
+            for (int index = y * width, end = index + width; index < end; index++)
+                line.append(symbols.get(index)).append(' ');
+            out.append(line.append('\n'));
+        }
+        line.setLength(0);
+        line.append("\n     ");
+        for (int x = 0; x < width; x++) {
+            line.append(x).append(' ');
+            if (line.length() >= 2 * width + 16) {
+                out.append(line);
+                line.setLength(0);
+            }
+        }
+        out.append(line);
+    }
+
+    /**
+    * Method that estimates the length of the text written by {@link #writeTo(Appendable, Symbols)}.
+    * @return Returns an upper bound of the length of the text, capped to the largest array size.
+    */
+    public int getTextLength() {
+        long digits = Long.toString(Math.max(width, height)).length();
+        return (int) Math.min(Integer.MAX_VALUE - 8, height * (2L * width + digits + 5) + width * (digits + 1) + 6);
+    }
+
+    /**
+    * Method that hashes the dimensions and the content of every cell, so equal grids get the same hash whatever
+    * they were read from. The cells are packed 32 to a long and mixed one long at a time.
+    * @return Returns a 64-bit hash of the grid, computed again on every call as cells can be set.
+    */
+    public long getContentHash() {
+        long hash = mix(((long) width << 32 | height) ^ GOLDEN_RATIO);
+        long packed = 0;
+        for (int index = 0; index < size; index++) {
+            packed = packed << 2 | cell(index);
+            if ((index & 31) == 31) {
+                hash = Long.rotateLeft(hash ^ mix(packed), 29) * GOLDEN_RATIO;
+                packed = 0;
+            }
+        }
+        return mix(hash ^ mix(packed ^ size));
+    }
+
+    // The finalizer of MurmurHash3, every bit of the input affects every bit of the output.
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+    * Method that gets the raw content of a cell.
+    * @param index The index of the cell.
+    * @return Returns the {@link Tile.Type} ordinal stored in the cell.
+    */
+    byte cell(int index) {
+        return cells[index];
+    }
+
+    /**
+    * Method that sets the raw content of a cell.
+    * @param index The index of the cell.
+    * @param code The {@link Tile.Type} ordinal to store in the cell.
+    */
+    void setCell(int index, byte code) {
+        cells[index] = code;
+    }
+
+    /**
+    * Interface of the function giving the character written for every cell by {@link MazeGrid#writeTo(Appendable, Symbols)}.
+    */
+    public interface Symbols {
+
+        /**
+        * Method that gets the character written for a cell.
+        * @param index The index of the cell.
+        * @return Returns the {@link Character} representing the cell.
+        */
+        char get(int index);
+    }
+}
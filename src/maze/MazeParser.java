@@ -0,0 +1,234 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+* Class that parses a text maze in a single pass over the bytes of a channel, decoding every symbol with a
+* lookup table straight into the array of a {@link MazeGrid}.
+* Rows are stored in file order while parsing and flipped once at the end, so that row 0 is the bottom row.
+* Errors are reported like a line by line reader would: a ragged line is reported before an error inside it.
+* A mapped file is only validated, its cells stay in the file and are served by a {@link MappedMazeGrid}.
+* @author Marius Traian Hostinar
+*/
+final class MazeParser {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final byte INVALID = -1;
+    private static final byte NEW_LINE = -2;
+    private static final byte CARRIAGE_RETURN = -3;
+    private static final byte[] CODES = new byte[256];
+    private static final byte ENTRANCE = (byte) Tile.Type.ENTRANCE.ordinal();
+    private static final byte EXIT = (byte) Tile.Type.EXIT.ordinal();
+    private static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    static {
+        Arrays.fill(CODES, INVALID);
+        CODES['.'] = (byte) Tile.Type.CORRIDOR.ordinal();
+        CODES['#'] = (byte) Tile.Type.WALL.ordinal();
+        CODES['e'] = ENTRANCE;
+        CODES['x'] = EXIT;
+        CODES['\n'] = NEW_LINE;
+        CODES['\r'] = CARRIAGE_RETURN;
+    }
+
+    private byte[] cells;
+    private ByteBuffer[] segments;
+    private long[] lineOffsets;
+    private int count;
+    private int width = -1;
+    private int height;
+    private int lineStart;
+    private long lineOffset;
+    private boolean afterCarriageReturn;
+    private InvalidMazeException lineError;
+    private int entrance = -1;
+    private int exit = -1;
+    private MazeGrid grid;
+
+    /**
+    * Method that reads a whole text maze from a channel.
+    * @param channel The channel to read, it is not closed.
+    * @return Returns the parser holding the parsed {@link MazeGrid} and the location of the entrance and exit.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
+    */
+    static MazeParser parse(ReadableByteChannel channel) throws IOException, InvalidMazeException {
+        MazeParser parser = new MazeParser();
+        long size = channel instanceof FileChannel ? ((FileChannel) channel).size() : 0;
+        // A file holds at least one byte per cell, so its size is enough for every cell.
+        parser.cells = new byte[(int) Math.min(MAX_CELLS, Math.max(CHUNK_SIZE, size))];
+
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        byte[] chunk = buffer.array();
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer)) >= 0) {
+            parser.consume(chunk, read, position);
+            position += read;
+            buffer.clear();
+        }
+        parser.finish();
+        return parser;
+    }
+
+    /**
+    * Method that memory-maps a whole text maze and validates it in one scan, without copying its cells.
+    * @param channel The channel of the file to map, it can be closed once the method returns.
+    * @return Returns the parser holding the {@link MappedMazeGrid} and the location of the entrance and exit.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
+    */
+    static MazeParser map(FileChannel channel) throws IOException, InvalidMazeException {
+        MazeParser parser = new MazeParser();
+        parser.segments = MappedMazeGrid.map(channel);
+        parser.lineOffsets = new long[16];
+
+        byte[] chunk = new byte[CHUNK_SIZE];
+        long position = 0;
+        for (ByteBuffer segment : parser.segments) {
+            ByteBuffer view = segment.duplicate();
+            while (view.hasRemaining()) {
+                int length = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, length);
+                parser.consume(chunk, length, position);
+                position += length;
+            }
+        }
+        parser.finish();
+        return parser;
+    }
+
+    /**
+    * Method that decodes a symbol of a text maze.
+    * @param symbol The byte read from the text.
+    * @return Returns the {@link Tile.Type} ordinal of the symbol or a negative number if it is not a valid symbol.
+    */
+    static byte decode(byte symbol) {
+        return CODES[symbol & 0xff];
+    }
+
+    /**
+    * Method that gets the parsed grid.
+    * @return Returns the {@link MazeGrid}, row 0 being the last line of the text.
+    */
+    MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+    * Method that gets the cell of the entrance.
+    * @return Returns the index of the entrance in the {@link MazeGrid}.
+    */
+    int getEntrance() {
+        return entrance;
+    }
+
+    /**
+    * Method that gets the cell of the exit.
+    * @return Returns the index of the exit in the {@link MazeGrid}.
+    */
+    int getExit() {
+        return exit;
+    }
+
+    private void consume(byte[] chunk, int length, long position) throws InvalidMazeException {
+        for (int i = 0; i < length; i++) {
+            byte code = CODES[chunk[i] & 0xff];
+            if (code >= 0) {
+                afterCarriageReturn = false;
+                if (code == ENTRANCE || code == EXIT)
+                    found(code);
+                append(code);
+            } else if (code == NEW_LINE) {
+                // "\r\n" is a single line break, the line was already ended by the '\r'.
+                if (!afterCarriageReturn)
+                    endLine();
+                afterCarriageReturn = false;
+                lineOffset = position + i + 1;
+            } else if (code == CARRIAGE_RETURN) {
+                endLine();
+                afterCarriageReturn = true;
+                lineOffset = position + i + 1;
+            } else {
+                afterCarriageReturn = false;
+                if (lineError == null)
+                    lineError = new InvalidMazeException("Please insert a valid symbol!");
+                append(code);
+            }
+        }
+    }
+
+    private void found(byte code) {
+        if (code == ENTRANCE) {
+            if (entrance < 0)
+                entrance = count;
+            else if (lineError == null)
+                lineError = new MultipleEntranceException();
+        } else {
+            if (exit < 0)
+                exit = count;
+            else if (lineError == null)
+                lineError = new MultipleExitException();
+        }
+    }
+
+    private void append(byte code) throws InvalidMazeException {
+        if (count == MAX_CELLS)
+            throw new InvalidMazeException("The maze has too many cells!");
+        if (cells != null) {
+            if (count == cells.length)
+                cells = Arrays.copyOf(cells, (int) Math.min(MAX_CELLS, (long) count * 2));
+            cells[count] = code;
+        }
+        count++;
+    }
+
+    private void endLine() throws InvalidMazeException {
+        int length = count - lineStart;
+        if (width < 0)
+            width = length;
+        else if (length != width)
+            throw new RaggedMazeException();
+        if (lineError != null)
+            throw lineError;
+        if (lineOffsets != null) {
+            if (height == lineOffsets.length)
+                lineOffsets = Arrays.copyOf(lineOffsets, height * 2);
+            lineOffsets[height] = lineOffset;
+        }
+        lineStart = count;
+        height++;
+    }
+
+    private void finish() throws InvalidMazeException {
+        // The last line does not need a line break, but a line break does not start a new line.
+        if (count > lineStart || lineError != null)
+            endLine();
+        if (entrance < 0)
+            throw new NoEntranceException();
+        if (exit < 0)
+            throw new NoExitException();
+
+        if (cells == null) {
+            grid = new MappedMazeGrid(width, height, segments, Arrays.copyOf(lineOffsets, height));
+        } else {
+            byte[] row = new byte[width];
+            for (int top = 0, bottom = height - 1; top < bottom; top++, bottom--) {
+                System.arraycopy(cells, top * width, row, 0, width);
+                System.arraycopy(cells, bottom * width, cells, top * width, width);
+                System.arraycopy(row, 0, cells, bottom * width, width);
+            }
+            grid = new MazeGrid(width, height, cells);
+        }
+        entrance = flip(entrance);
+        exit = flip(exit);
+    }
+
+    private int flip(int fileIndex) {
+        return grid.indexOf(fileIndex % width, height - 1 - fileIndex / width);
+    }
+}
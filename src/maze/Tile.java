@@ -4,11 +4,20 @@ import java.io.Serializable;
 
 /**
 * {@link Serializable} class describing an object that represents a space within a {@link Maze}. 
+* Traversing {@link Maze#getTiles()} hands out one shared, flyweight instance per {@link Type}, so no object exists per cell;
+* the position of a {@link Tile} is tracked by the {@link Maze} it was placed in or located from, not by the {@link Tile} itself.
 * @author Marius Traian Hostinar
 */
 public class Tile implements Serializable{
 
+    private static final long serialVersionUID = 6781369052030736696L;
+    private static final Tile[] FLYWEIGHTS = {
+        new Tile(Type.CORRIDOR), new Tile(Type.ENTRANCE), new Tile(Type.EXIT), new Tile(Type.WALL)
+    };
+
     private Type type;
+    // Index of the cell the tile was placed in by a Maze, -1 while it is not part of one.
+    transient int index = -1;
     
     private Tile(Type typeIn){
         type = typeIn;
@@ -21,24 +30,54 @@ public class Tile implements Serializable{
     * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
     */
     protected static Tile fromChar(char character) throws InvalidMazeException {
-        Type type;    
+        return new Tile(typeOf(character));
+    }
+
+    /**
+    * A method that creates a {@link Tile} of a given {@link Type}.
+    * @param type A given {@link Type}.
+    * @return Returns a new {@link Tile} of the inputted {@link Type}.
+    */
+    protected static Tile fromType(Type type) {
+        return new Tile(type);
+    }
+
+    /**
+    * A method that gets the shared {@link Tile} of a given {@link Type}, which is never placed at a location.
+    * @param type A given {@link Type}.
+    * @return Returns the flyweight {@link Tile} of the inputted {@link Type}.
+    */
+    static Tile flyweight(Type type) {
+        return FLYWEIGHTS[type.ordinal()];
+    }
+
+    /**
+    * A method that checks if the {@link Tile} is a shared flyweight rather than a {@link Tile} of its own.
+    * @return Returns a boolean True if the {@link Tile} is shared and a boolean False if it is not.
+    */
+    boolean isFlyweight() {
+        return this == FLYWEIGHTS[type.ordinal()];
+    }
+
+    /**
+    * A method that transforms a given {@link Character} into a {@link Type} without creating a {@link Tile}.
+    * @param character A given {@link Character}.
+    * @return Returns the {@link Type} deducted from the inputted {@link Character}.
+    * @throws InvalidMazeException Indicates the {@link Maze} is invalid.
+    */
+    static Type typeOf(char character) throws InvalidMazeException {
         switch(character) {
             case '.':
-                type = Type.CORRIDOR;
-                break;
+                return Type.CORRIDOR;
             case '#':
-                type = Type.WALL;
-                break;
+                return Type.WALL;
             case 'e':
-                type = Type.ENTRANCE;
-                break;
+                return Type.ENTRANCE;
             case 'x':
-                type = Type.EXIT;  
-                break;    
+                return Type.EXIT;
             default: 
                 throw new InvalidMazeException("Please insert a valid symbol!");
         }
-        return new Tile(type);
     }
 
     /**
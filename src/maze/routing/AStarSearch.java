@@ -0,0 +1,100 @@
+package maze.routing;
+
+import java.util.Arrays;
+import maze.MazeGrid;
+
+/**
+* {@link SearchStrategy} that expands cells in order of their distance from the source plus their Manhattan distance
+* to the target. The Manhattan distance never overestimates on a grid without diagonal moves, so the route is a shortest one.
+* While searching, the route is the shortest path to the cell expanded last.
+* @author Marius Traian Hostinar
+*/
+public class AStarSearch implements SearchStrategy {
+
+    /**
+    * The name of the strategy.
+    */
+    public static final String NAME = "astar";
+
+    private int[] parents;
+    private int[] costs;
+    // The cells given a cost, whose costs are reset when the strategy is started again.
+    private int[] reached = new int[16];
+    private int reachedCount;
+    private final MinHeap open = new MinHeap();
+    private final int[] neighbours = new int[4];
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void start(SearchState state) {
+        int size = state.getGrid().getSize();
+        if (costs == null || costs.length != size) {
+            parents = new int[size];
+            costs = new int[size];
+            Arrays.fill(costs, -1);
+        } else {
+            // A strategy answering many queries on the same grid, see MazeRouter, only resets the cells it reached.
+            for (int i = 0; i < reachedCount; i++)
+                costs[reached[i]] = -1;
+        }
+        reachedCount = 0;
+        open.clear();
+        parents[state.getSource()] = -1;
+        reach(state.getSource(), 0);
+        open.push(heuristic(state.getGrid(), state.getSource(), state.getTarget()), state.getSource());
+    }
+
+    @Override
+    public boolean step(SearchState state) throws NoRouteFoundException {
+        // Cells reached again on a shorter path are pushed again, so older entries are skipped here.
+        int cell;
+        do {
+            if (open.isEmpty())
+                throw new NoRouteFoundException();
+            cell = open.pop();
+        } while (state.isVisited(cell));
+
+        state.setVisited(cell);
+        state.traceRoute(parents, cell);
+        int target = state.getTarget();
+        if (cell == target)
+            return true;
+
+        MazeGrid grid = state.getGrid();
+        int cost = costs[cell] + 1;
+        int count = grid.getNavigableNeighbours(cell, neighbours);
+        for (int i = 0; i < count; i++) {
+            int next = neighbours[i];
+            if (!state.isVisited(next) && (costs[next] < 0 || cost < costs[next])) {
+                reach(next, cost);
+                parents[next] = cell;
+                open.push(cost + heuristic(grid, next, target), next);
+            }
+        }
+        return false;
+    }
+
+    private void reach(int cell, int cost) {
+        if (costs[cell] < 0) {
+            if (reachedCount == reached.length)
+                reached = Arrays.copyOf(reached, reachedCount * 2);
+            reached[reachedCount++] = cell;
+        }
+        costs[cell] = cost;
+    }
+
+    /**
+    * Method that estimates the length of the route between two cells.
+    * @param grid The {@link MazeGrid} being searched.
+    * @param from The index of the first cell.
+    * @param to The index of the second cell.
+    * @return Returns the Manhattan distance between the cells.
+    */
+    static int heuristic(MazeGrid grid, int from, int to) {
+        return Math.abs(grid.getX(from) - grid.getX(to)) + Math.abs(grid.getY(from) - grid.getY(to));
+    }
+}
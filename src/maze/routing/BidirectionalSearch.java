@@ -0,0 +1,126 @@
+package maze.routing;
+
+import java.util.Arrays;
+import maze.MazeGrid;
+
+/**
+* {@link SearchStrategy} that runs two breadth-first searches, one from the source and one from the target, until they meet.
+* Each side expands a whole layer (all cells at the same distance) before the sides are compared, always continuing
+* with the smaller frontier, so the route found is a shortest one. While searching, the route is the path from the
+* source to the cell the forward search expanded last.
+* @author Marius Traian Hostinar
+*/
+public class BidirectionalSearch implements SearchStrategy {
+
+    /**
+    * The name of the strategy.
+    */
+    public static final String NAME = "bidirectional";
+
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private final int[] neighbours = new int[4];
+    private Side current;
+    private int layerEnd;
+    private int meeting;
+    private int meetingLength;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void start(SearchState state) {
+        int size = state.getGrid().getSize();
+        forward.start(size, state.getSource());
+        backward.start(size, state.getTarget());
+        meeting = state.getSource() == state.getTarget() ? state.getSource() : -1;
+        meetingLength = 0;
+        current = forward;
+        layerEnd = forward.tail;
+    }
+
+    @Override
+    public boolean step(SearchState state) throws NoRouteFoundException {
+        if (meeting >= 0 && current.head == layerEnd)
+            return finish(state);
+        if (current.head == current.tail)
+            throw new NoRouteFoundException();
+
+        Side other = current == forward ? backward : forward;
+        int cell = current.queue[current.head++];
+        state.setVisited(cell);
+        if (current == forward)
+            state.traceRoute(forward.parents, cell);
+
+        MazeGrid grid = state.getGrid();
+        int count = grid.getNavigableNeighbours(cell, neighbours);
+        for (int i = 0; i < count; i++) {
+            int next = neighbours[i];
+            if (current.distances[next] >= 0)
+                continue;
+            current.reach(next, cell);
+            if (other.distances[next] >= 0) {
+                int length = current.distances[next] + other.distances[next];
+                if (meeting < 0 || length < meetingLength) {
+                    meeting = next;
+                    meetingLength = length;
+                }
+            }
+        }
+
+        if (current.head == layerEnd) {
+            if (meeting >= 0)
+                return finish(state);
+            current = forward.tail - forward.head <= backward.tail - backward.head ? forward : backward;
+            layerEnd = current.tail;
+        }
+        return false;
+    }
+
+    private boolean finish(SearchState state) {
+        state.clearRoute();
+        state.traceRoute(forward.parents, meeting);
+        for (int cell = backward.parents[meeting]; cell >= 0; cell = backward.parents[cell])
+            state.pushRoute(cell);
+        return true;
+    }
+
+    /**
+    * The queue, parents and distances of one of the two searches.
+    */
+    private static final class Side {
+
+        private int[] parents;
+        private int[] distances;
+        private int[] queue;
+        private int head;
+        private int tail;
+
+        private void start(int size, int origin) {
+            if (distances == null || distances.length != size) {
+                parents = new int[size];
+                distances = new int[size];
+                Arrays.fill(distances, -1);
+                queue = new int[16];
+            } else {
+                // A strategy answering many queries on the same grid, see MazeRouter, only resets the cells it reached.
+                for (int i = 0; i < tail; i++)
+                    distances[queue[i]] = -1;
+            }
+            head = tail = 0;
+            parents[origin] = -1;
+            distances[origin] = 0;
+            queue[tail++] = origin;
+        }
+
+        private void reach(int cell, int parent) {
+            parents[cell] = parent;
+            distances[cell] = distances[parent] + 1;
+            if (tail == queue.length)
+                queue = Arrays.copyOf(queue, tail * 2);
+            queue[tail++] = cell;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package maze.routing;
+
+import java.util.Arrays;
+import maze.MazeGrid;
+
+/**
+* {@link SearchStrategy} that expands cells in order of their distance from the source, so the route found is a shortest one.
+* While searching, the route is the shortest path to the cell expanded last.
+* @author Marius Traian Hostinar
+*/
+public class BreadthFirstSearch implements SearchStrategy {
+
+    /**
+    * The name of the strategy.
+    */
+    public static final String NAME = "bfs";
+
+    private static final int UNSEEN = -2;
+
+    private int[] parents;
+    private int[] queue;
+    private int head;
+    private int tail;
+    private final int[] neighbours = new int[4];
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void start(SearchState state) {
+        int size = state.getGrid().getSize();
+        if (parents == null || parents.length != size) {
+            parents = new int[size];
+            Arrays.fill(parents, UNSEEN);
+            queue = new int[16];
+        } else {
+            // A strategy answering many queries on the same grid, see MazeRouter, only resets the cells it reached.
+            for (int i = 0; i < tail; i++)
+                parents[queue[i]] = UNSEEN;
+        }
+        head = tail = 0;
+        parents[state.getSource()] = -1;
+        queue[tail++] = state.getSource();
+    }
+
+    @Override
+    public boolean step(SearchState state) throws NoRouteFoundException {
+        if (head == tail)
+            throw new NoRouteFoundException();
+
+        int cell = queue[head++];
+        state.setVisited(cell);
+        state.traceRoute(parents, cell);
+        if (cell == state.getTarget())
+            return true;
+
+        MazeGrid grid = state.getGrid();
+        int count = grid.getNavigableNeighbours(cell, neighbours);
+        for (int i = 0; i < count; i++) {
+            int next = neighbours[i];
+            if (parents[next] == UNSEEN) {
+                parents[next] = cell;
+                if (tail == queue.length)
+                    queue = Arrays.copyOf(queue, tail * 2);
+                queue[tail++] = next;
+            }
+        }
+        return false;
+    }
+}
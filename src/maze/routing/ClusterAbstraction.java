@@ -0,0 +1,418 @@
+package maze.routing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import maze.MazeGrid;
+
+/**
+* Abstract graph of a {@link MazeGrid} partitioned into square clusters, searched by {@link HierarchicalSearch}.
+* Wherever the cells on both sides of the border between two clusters are navigable, the border has an entrance;
+* an entrance gets one pair of transition cells in its middle, or one at each end if it is wide. The transition cells
+* are the nodes of the graph, linked to the transition cells next to them across the border at a cost of 1 and to the
+* other transition cells of their cluster at the length of the shortest path inside the cluster.
+* Building the graph searches every cluster once per node, so it is built once per grid and reused, see {@link #of}.
+* @author Marius Traian Hostinar
+*/
+public final class ClusterAbstraction {
+
+    /**
+    * The width and height of the clusters of the abstractions returned by {@link #of}.
+    */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    // Entrances at least this wide get a transition at each end instead of one in the middle.
+    private static final int WIDE_ENTRANCE = 6;
+    private static final char UNREACHABLE = Character.MAX_VALUE;
+
+    // The abstractions are looked up by grid identity and do not reference their grid, so they go with it.
+    private static final Map<MazeGrid, ClusterAbstraction> CACHE =
+        Collections.synchronizedMap(new WeakHashMap<MazeGrid, ClusterAbstraction>());
+
+    private final int clusterSize;
+    private final int width;
+    private final int height;
+    private final int clustersX;
+    private final int modifications;
+    // Nodes are numbered in the order of their cells, and listed by cluster in clusterNodes.
+    private final int[] nodeCells;
+    private final int[] nodeSlots;
+    private final int[] clusterStarts;
+    private final int[] clusterNodes;
+    // The nodes next to a node across the borders of its cluster are acrossNodes[acrossStarts[node]] onwards.
+    private final int[] acrossStarts;
+    private final int[] acrossNodes;
+    // The distances between the nodes of a cluster are a matrix starting at distanceStarts[cluster].
+    private final int[] distanceStarts;
+    private final char[] distances;
+
+    private ClusterAbstraction(MazeGrid grid, int clusterSize, int[] nodeCells) {
+        this.clusterSize = clusterSize;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.clustersX = (width + clusterSize - 1) / clusterSize;
+        this.modifications = grid.getModificationCount();
+        this.nodeCells = nodeCells;
+        int clusters = clustersX * ((height + clusterSize - 1) / clusterSize);
+
+        clusterStarts = new int[clusters + 1];
+        for (int cell : nodeCells)
+            clusterStarts[clusterOf(cell) + 1]++;
+        for (int cluster = 0; cluster < clusters; cluster++)
+            clusterStarts[cluster + 1] += clusterStarts[cluster];
+        clusterNodes = new int[nodeCells.length];
+        nodeSlots = new int[nodeCells.length];
+        int[] filled = new int[clusters];
+        for (int node = 0; node < nodeCells.length; node++) {
+            int cluster = clusterOf(nodeCells[node]);
+            nodeSlots[node] = filled[cluster]++;
+            clusterNodes[clusterStarts[cluster] + nodeSlots[node]] = node;
+        }
+
+        acrossStarts = new int[nodeCells.length + 1];
+        int[] across = new int[nodeCells.length];
+        int[] neighbours = new int[4];
+        int links = 0;
+        for (int node = 0; node < nodeCells.length; node++) {
+            int cell = nodeCells[node];
+            for (int i = grid.getNavigableNeighbours(cell, neighbours) - 1; i >= 0; i--) {
+                int next = nodeOf(neighbours[i]);
+                if (next < 0 || clusterOf(neighbours[i]) == clusterOf(cell))
+                    continue;
+                if (links == across.length)
+                    across = Arrays.copyOf(across, links * 2);
+                across[links++] = next;
+            }
+            acrossStarts[node + 1] = links;
+        }
+        acrossNodes = Arrays.copyOf(across, links);
+
+        distanceStarts = new int[clusters + 1];
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            int count = getClusterNodeCount(cluster);
+            distanceStarts[cluster + 1] = distanceStarts[cluster] + count * count;
+        }
+        distances = new char[distanceStarts[clusters]];
+        ClusterSearch search = newClusterSearch();
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            int count = getClusterNodeCount(cluster);
+            for (int i = 0; i < count; i++) {
+                search.run(grid, nodeCells[getClusterNode(cluster, i)]);
+                for (int j = 0; j < count; j++) {
+                    int distance = search.distanceTo(nodeCells[getClusterNode(cluster, j)]);
+                    distances[distanceStarts[cluster] + i * count + j] = distance < 0 ? UNREACHABLE : (char) distance;
+                }
+            }
+        }
+    }
+
+    /**
+    * Method that gets the abstraction of a grid with clusters of {@link #DEFAULT_CLUSTER_SIZE}, built on first use and
+    * reused by every search of the same grid until one of its cells is set.
+    * @param grid The {@link MazeGrid} to abstract.
+    * @return Returns the abstraction of the grid as it is now.
+    */
+    public static ClusterAbstraction of(MazeGrid grid) {
+        ClusterAbstraction abstraction = CACHE.get(grid);
+        if (abstraction == null || !abstraction.isCurrent(grid)) {
+            abstraction = build(grid, DEFAULT_CLUSTER_SIZE);
+            CACHE.put(grid, abstraction);
+        }
+        return abstraction;
+    }
+
+    /**
+    * Method that builds the abstraction of a grid, without caching it.
+    * @param grid The {@link MazeGrid} to abstract.
+    * @param clusterSize The width and height of the clusters, from 2 to 255.
+    * @return Returns the abstraction of the grid as it is now.
+    * @throws IllegalArgumentException Indicates that the cluster size is out of range.
+    */
+    public static ClusterAbstraction build(MazeGrid grid, int clusterSize) {
+        if (clusterSize < 2 || clusterSize > 255)
+            throw new IllegalArgumentException("Cluster size out of range: " + clusterSize);
+        Transitions transitions = new Transitions();
+        // Borders between columns of clusters, then between rows of clusters.
+        for (int x = clusterSize; x < grid.getWidth(); x += clusterSize)
+            transitions.addEntrances(grid, clusterSize, x - 1, 0, 0, 1, grid.getHeight());
+        for (int y = clusterSize; y < grid.getHeight(); y += clusterSize)
+            transitions.addEntrances(grid, clusterSize, 0, y - 1, 1, 0, grid.getWidth());
+        return new ClusterAbstraction(grid, clusterSize, transitions.toSortedSet());
+    }
+
+    /**
+    * Method that checks if the abstraction still describes a grid, which is no longer the case once one of its cells is set.
+    * @param grid The {@link MazeGrid} that was abstracted.
+    * @return Returns a boolean True if no cell of the grid was set since it was abstracted.
+    */
+    public boolean isCurrent(MazeGrid grid) {
+        return grid.getModificationCount() == modifications && grid.getWidth() == width && grid.getHeight() == height;
+    }
+
+    /**
+    * Method that gets the width and height of the clusters.
+    * @return Returns the cluster size.
+    */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    /**
+    * Method that gets the number of nodes of the abstract graph.
+    * @return Returns the number of transition cells.
+    */
+    public int getNodeCount() {
+        return nodeCells.length;
+    }
+
+    /**
+    * Method that gets the cell of a node.
+    * @param node The number of the node.
+    * @return Returns the index of the transition cell.
+    */
+    int getNodeCell(int node) {
+        return nodeCells[node];
+    }
+
+    /**
+    * Method that gets the node of a cell.
+    * @param cell The index of the cell.
+    * @return Returns the number of the node, or -1 if the cell is not a transition cell.
+    */
+    int nodeOf(int cell) {
+        int node = Arrays.binarySearch(nodeCells, cell);
+        return node < 0 ? -1 : node;
+    }
+
+    /**
+    * Method that gets the position of a node among the nodes of its cluster.
+    * @param node The number of the node.
+    * @return Returns the slot of the node in its cluster.
+    */
+    int getSlot(int node) {
+        return nodeSlots[node];
+    }
+
+    /**
+    * Method that gets the cluster of a cell, clusters being numbered row by row from the bottom left one.
+    * @param cell The index of the cell.
+    * @return Returns the number of the cluster.
+    */
+    int clusterOf(int cell) {
+        return (cell % width) / clusterSize + (cell / width) / clusterSize * clustersX;
+    }
+
+    /**
+    * Method that gets the number of nodes of a cluster.
+    * @param cluster The number of the cluster.
+    * @return Returns the number of transition cells in the cluster.
+    */
+    int getClusterNodeCount(int cluster) {
+        return clusterStarts[cluster + 1] - clusterStarts[cluster];
+    }
+
+    /**
+    * Method that gets a node of a cluster.
+    * @param cluster The number of the cluster.
+    * @param slot The position of the node among the nodes of the cluster.
+    * @return Returns the number of the node.
+    */
+    int getClusterNode(int cluster, int slot) {
+        return clusterNodes[clusterStarts[cluster] + slot];
+    }
+
+    /**
+    * Method that gets the number of nodes next to a node across the borders of its cluster.
+    * @param node The number of the node.
+    * @return Returns the number of nodes linked to the node at a cost of 1.
+    */
+    int getAcrossCount(int node) {
+        return acrossStarts[node + 1] - acrossStarts[node];
+    }
+
+    /**
+    * Method that gets a node next to a node across the borders of its cluster.
+    * @param node The number of the node.
+    * @param i The position of the linked node, from 0 to {@link #getAcrossCount} excluded.
+    * @return Returns the number of the linked node.
+    */
+    int getAcrossNode(int node, int i) {
+        return acrossNodes[acrossStarts[node] + i];
+    }
+
+    /**
+    * Method that gets the length of the shortest path between two nodes of a cluster, inside the cluster.
+    * @param cluster The number of the cluster.
+    * @param from The slot of the first node.
+    * @param to The slot of the second node.
+    * @return Returns the distance between the nodes, or -1 if no path inside the cluster links them.
+    */
+    int getDistance(int cluster, int from, int to) {
+        char distance = distances[distanceStarts[cluster] + from * getClusterNodeCount(cluster) + to];
+        return distance == UNREACHABLE ? -1 : distance;
+    }
+
+    /**
+    * Method that creates a breadth first search confined to one cluster at a time.
+    * @return Returns a new {@link ClusterSearch}, used by one thread only.
+    */
+    ClusterSearch newClusterSearch() {
+        return new ClusterSearch();
+    }
+
+    /**
+    * Breadth first search of the cells of one cluster, from a cell to every cell it reaches without leaving the cluster.
+    * Its arrays hold one cluster, whose cells are read from the grid once for all the searches of that cluster, so
+    * searching is proportional to the size of a cluster whatever the size of the grid.
+    */
+    final class ClusterSearch {
+
+        private final boolean[] navigable = new boolean[clusterSize * clusterSize];
+        private final int[] distances = new int[clusterSize * clusterSize];
+        private final int[] parents = new int[clusterSize * clusterSize];
+        private final int[] queue = new int[clusterSize * clusterSize];
+        private MazeGrid loaded;
+        private int cluster = -1;
+        private int left;
+        private int bottom;
+        private int columns;
+        private int rows;
+
+        /**
+        * Method that searches the cluster of a cell from that cell.
+        * @param grid The {@link MazeGrid} being searched.
+        * @param cell The index of the cell the search starts from.
+        */
+        void run(MazeGrid grid, int cell) {
+            if (grid != loaded || clusterOf(cell) != cluster)
+                load(grid, cell);
+            Arrays.fill(distances, -1);
+            int start = local(cell);
+            distances[start] = 0;
+            parents[start] = -1;
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int current = queue[head++];
+                int distance = distances[current] + 1;
+                int x = current % clusterSize;
+                int y = current / clusterSize;
+                if (y + 1 < rows)
+                    tail = visit(current, current + clusterSize, distance, tail);
+                if (y > 0)
+                    tail = visit(current, current - clusterSize, distance, tail);
+                if (x + 1 < columns)
+                    tail = visit(current, current + 1, distance, tail);
+                if (x > 0)
+                    tail = visit(current, current - 1, distance, tail);
+            }
+        }
+
+        private int visit(int current, int next, int distance, int tail) {
+            if (navigable[next] && distances[next] < 0) {
+                distances[next] = distance;
+                parents[next] = current;
+                queue[tail++] = next;
+            }
+            return tail;
+        }
+
+        private void load(MazeGrid grid, int cell) {
+            loaded = grid;
+            cluster = clusterOf(cell);
+            left = cell % width / clusterSize * clusterSize;
+            bottom = cell / width / clusterSize * clusterSize;
+            columns = Math.min(clusterSize, width - left);
+            rows = Math.min(clusterSize, height - bottom);
+            for (int y = 0; y < rows; y++)
+                for (int x = 0; x < columns; x++)
+                    navigable[x + y * clusterSize] = grid.isNavigable(grid.indexOf(left + x, bottom + y));
+        }
+
+        /**
+        * Method that gets the distance from the cell the last search started from.
+        * @param cell The index of the cell.
+        * @return Returns the length of the shortest path inside the cluster, or -1 if the cell is not reached.
+        */
+        int distanceTo(int cell) {
+            return clusterOf(cell) == cluster ? distances[local(cell)] : -1;
+        }
+
+        /**
+        * Method that gets the next cell of the shortest path from a reached cell back to the cell the search started from.
+        * @param cell The index of a reached cell.
+        * @return Returns the index of the cell before it on the path, or -1 for the start cell.
+        */
+        int parentOf(int cell) {
+            int parent = parents[local(cell)];
+            return parent < 0 ? -1 : left + parent % clusterSize + (bottom + parent / clusterSize) * width;
+        }
+
+        private int local(int cell) {
+            return cell % width - left + (cell / width - bottom) * clusterSize;
+        }
+    }
+
+    /**
+    * Growable list of the transition cells found while scanning the borders.
+    */
+    private static final class Transitions {
+
+        private int[] cells = new int[64];
+        private int count;
+
+        /**
+        * Method that adds the transition cells of the entrances along one border line.
+        * @param grid The {@link MazeGrid} to abstract.
+        * @param clusterSize The width and height of the clusters.
+        * @param x The column of the first cell of the line, on the lower side of the border.
+        * @param y The row of the first cell of the line, on the lower side of the border.
+        * @param dx The horizontal direction of the line, 1 along a border between rows of clusters.
+        * @param dy The vertical direction of the line, 1 along a border between columns of clusters.
+        * @param length The number of cells of the line.
+        */
+        void addEntrances(MazeGrid grid, int clusterSize, int x, int y, int dx, int dy, int length) {
+            int run = 0;
+            for (int i = 0; i <= length; i++) {
+                // The cell across the border is a step along the other axis.
+                boolean open = i < length && grid.isNavigable(grid.indexOf(x + i * dx, y + i * dy))
+                    && grid.isNavigable(grid.indexOf(x + i * dx + dy, y + i * dy + dx));
+                // Entrances also end at the corners of the clusters, as the clusters they link change there.
+                if (open && (run == 0 || i % clusterSize != 0)) {
+                    run++;
+                    continue;
+                }
+                if (run >= WIDE_ENTRANCE) {
+                    add(grid, x, y, dx, dy, i - run);
+                    add(grid, x, y, dx, dy, i - 1);
+                } else if (run > 0) {
+                    add(grid, x, y, dx, dy, i - run + (run - 1) / 2);
+                }
+                run = open ? 1 : 0;
+            }
+        }
+
+        private void add(MazeGrid grid, int x, int y, int dx, int dy, int i) {
+            if (count + 2 > cells.length)
+                cells = Arrays.copyOf(cells, cells.length * 2);
+            cells[count++] = grid.indexOf(x + i * dx, y + i * dy);
+            cells[count++] = grid.indexOf(x + i * dx + dy, y + i * dy + dx);
+        }
+
+        /**
+        * Method that gets the transition cells, without the corner cells found on two borders more than once.
+        * @return Returns the sorted transition cells.
+        */
+        int[] toSortedSet() {
+            int[] sorted = Arrays.copyOf(cells, count);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++)
+                if (unique == 0 || sorted[unique - 1] != sorted[i])
+                    sorted[unique++] = sorted[i];
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package maze.routing;
+
+import java.util.Arrays;
+import maze.MazeGrid;
+import maze.Tile;
+
+/**
+* Preprocessing pass that fills the dead ends of a {@link MazeGrid} before it is searched. A dead end is a navigable
+* cell with at most one navigable neighbour, other than the source and the target; no route without detour goes through
+* it, so it is turned into a wall, which can turn its neighbour into a dead end in turn. Every cell is filled at most
+* once and every neighbour checked at most once per filled cell, so the pass is linear in the size of the grid.
+* On a perfect maze only the route from the source to the target is left, which a {@link DepthFirstSearch} then walks
+* without backtracking.
+* @author Marius Traian Hostinar
+*/
+public final class DeadEndFilling {
+
+    private final MazeGrid grid;
+    private final int pruned;
+
+    private DeadEndFilling(MazeGrid grid, int pruned) {
+        this.grid = grid;
+        this.pruned = pruned;
+    }
+
+    /**
+    * Method that fills the dead ends of a copy of a grid, the grid itself is left as it is.
+    * @param grid The {@link MazeGrid} to reduce.
+    * @param source The index of the cell the route starts from, never filled.
+    * @param target The index of the cell the route has to reach, never filled.
+    * @return Returns the DeadEndFilling holding the reduced grid.
+    */
+    public static DeadEndFilling fill(MazeGrid grid, int source, int target) {
+        int size = grid.getSize();
+        MazeGrid reduced = new MazeGrid(grid.getWidth(), grid.getHeight());
+        byte[] degrees = new byte[size];
+        int[] neighbours = new int[4];
+        int[] stack = new int[64];
+        int count = 0;
+        for (int cell = 0; cell < size; cell++) {
+            Tile.Type type = grid.getType(cell);
+            if (type != Tile.Type.CORRIDOR)
+                reduced.setType(cell, type);
+            if (!grid.isNavigable(cell))
+                continue;
+            degrees[cell] = (byte) grid.getNavigableNeighbours(cell, neighbours);
+            if (degrees[cell] <= 1 && cell != source && cell != target) {
+                if (count == stack.length)
+                    stack = Arrays.copyOf(stack, count * 2);
+                stack[count++] = cell;
+            }
+        }
+
+        int pruned = 0;
+        while (count > 0) {
+            int cell = stack[--count];
+            if (!reduced.isNavigable(cell))
+                continue;
+            reduced.setType(cell, Tile.Type.WALL);
+            pruned++;
+            // Only the neighbour the dead end led to is left, and it may now be a dead end too.
+            for (int i = reduced.getNavigableNeighbours(cell, neighbours) - 1; i >= 0; i--) {
+                int next = neighbours[i];
+                if (--degrees[next] <= 1 && next != source && next != target) {
+                    if (count == stack.length)
+                        stack = Arrays.copyOf(stack, count * 2);
+                    stack[count++] = next;
+                }
+            }
+        }
+        return new DeadEndFilling(reduced, pruned);
+    }
+
+    /**
+    * Method that gets the grid without its dead ends.
+    * @return Returns the reduced {@link MazeGrid}, where every filled cell is a wall.
+    */
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+    * Method that gets the number of cells filled.
+    * @return Returns the number of navigable cells turned into walls.
+    */
+    public int getPrunedCount() {
+        return pruned;
+    }
+}
@@ -0,0 +1,56 @@
+package maze.routing;
+
+import maze.MazeGrid;
+
+/**
+* {@link SearchStrategy} that walks depth-first, always trying north, south, east then west and backtracking from dead ends.
+* The route is the stack of cells walked so far; it finds a route quickly but not necessarily the shortest one.
+* @author Marius Traian Hostinar
+*/
+public class DepthFirstSearch implements SearchStrategy {
+
+    /**
+    * The name of the strategy.
+    */
+    public static final String NAME = "dfs";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void start(SearchState state) {
+        // The route stack is the whole state of a depth-first search.
+    }
+
+    @Override
+    public boolean step(SearchState state) throws NoRouteFoundException {
+        if (state.getRouteSize() == 0)
+            throw new NoRouteFoundException();
+
+        MazeGrid grid = state.getGrid();
+        int last = state.peekRoute();
+        if (last == state.getTarget())
+            return true;
+        state.setVisited(last);
+
+        int width = grid.getWidth();
+        int x = last % width;
+        int y = last / width;
+        int next;
+        if (y + 1 < grid.getHeight() && canEnter(state, grid, next = last + width)
+                || y > 0 && canEnter(state, grid, next = last - width)
+                || x + 1 < width && canEnter(state, grid, next = last + 1)
+                || x > 0 && canEnter(state, grid, next = last - 1)) {
+            state.pushRoute(next);
+            return next == state.getTarget();
+        }
+        state.popRoute();
+        return false;
+    }
+
+    private static boolean canEnter(SearchState state, MazeGrid grid, int cell) {
+        return !state.isVisited(cell) && grid.isNavigable(cell);
+    }
+}
@@ -0,0 +1,202 @@
+package maze.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import maze.MazeGrid;
+
+/**
+* {@link SearchStrategy} for very large mazes that runs an {@link AStarSearch} over the {@link ClusterAbstraction} of
+* the grid instead of its cells (HPA*). The source and the target are linked to the transition cells of their
+* clusters, the graph is searched from one to the other, and only the clusters the abstract path goes through are
+* then searched cell by cell to refine it into a route. The abstraction is shared by all the searches of a grid, so
+* after the first search each one only expands transition cells.
+* The route is shortest inside every cluster, and within a few percent of the shortest one overall as transition
+* cells are only placed at some cells of every entrance; a maze that fits in one cluster gets a shortest route.
+* While searching, the route only holds the source, as the abstract path is refined once the target is reached.
+* @author Marius Traian Hostinar
+*/
+public class HierarchicalSearch implements SearchStrategy {
+
+    /**
+    * The name of the strategy.
+    */
+    public static final String NAME = "hpa";
+
+    private ClusterAbstraction abstraction;
+    private ClusterAbstraction.ClusterSearch search;
+    // The nodes of the abstraction, then the source and the target.
+    private int sourceNode;
+    private int targetNode;
+    private int[] costs;
+    private int[] parents;
+    private BitSet closed;
+    // Distances inside their clusters from the source and the target to the nodes of those clusters, by slot.
+    private int[] sourceDistances;
+    private int[] targetDistances;
+    private int direct;
+    private BitSet onRoute;
+    private final MinHeap open = new MinHeap();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+    * Method that gets the abstraction searched, shared with the other searches of the same grid.
+    * @return Returns the {@link ClusterAbstraction} of the grid, or null before the search is started.
+    */
+    public ClusterAbstraction getAbstraction() {
+        return abstraction;
+    }
+
+    @Override
+    public void start(SearchState state) {
+        MazeGrid grid = state.getGrid();
+        ClusterAbstraction previous = abstraction;
+        abstraction = ClusterAbstraction.of(grid);
+        if (abstraction != previous)
+            search = abstraction.newClusterSearch();
+        int nodes = abstraction.getNodeCount();
+        sourceNode = nodes;
+        targetNode = nodes + 1;
+        // A strategy answering many queries on the same grid, see MazeRouter, reuses its arrays.
+        if (costs == null || costs.length != nodes + 2) {
+            costs = new int[nodes + 2];
+            parents = new int[nodes + 2];
+            closed = new BitSet(nodes + 2);
+        } else {
+            closed.clear();
+        }
+        Arrays.fill(costs, -1);
+        open.clear();
+
+        int source = state.getSource();
+        int target = state.getTarget();
+        targetDistances = linkToCluster(grid, target);
+        sourceDistances = linkToCluster(grid, source);
+        direct = search.distanceTo(target);
+        costs[sourceNode] = 0;
+        parents[sourceNode] = -1;
+        open.push(AStarSearch.heuristic(grid, source, target), sourceNode);
+    }
+
+    /**
+    * Method that searches the cluster of a cell from that cell, to link it to the nodes of the cluster.
+    * @param grid The {@link MazeGrid} being searched.
+    * @param cell The index of the cell.
+    * @return Returns the distance from the cell to every node of its cluster by slot, -1 for the nodes it does not reach.
+    */
+    private int[] linkToCluster(MazeGrid grid, int cell) {
+        search.run(grid, cell);
+        int cluster = abstraction.clusterOf(cell);
+        int[] distances = new int[abstraction.getClusterNodeCount(cluster)];
+        for (int slot = 0; slot < distances.length; slot++)
+            distances[slot] = search.distanceTo(abstraction.getNodeCell(abstraction.getClusterNode(cluster, slot)));
+        return distances;
+    }
+
+    @Override
+    public boolean step(SearchState state) throws NoRouteFoundException {
+        int node;
+        do {
+            if (open.isEmpty())
+                throw new NoRouteFoundException();
+            node = open.pop();
+        } while (closed.get(node));
+        closed.set(node);
+        int cell = cellOf(state, node);
+        state.setVisited(cell);
+        if (node == targetNode) {
+            refine(state);
+            return true;
+        }
+
+        int cost = costs[node];
+        int targetCluster = abstraction.clusterOf(state.getTarget());
+        if (node == sourceNode) {
+            int cluster = abstraction.clusterOf(cell);
+            for (int slot = 0; slot < sourceDistances.length; slot++)
+                if (sourceDistances[slot] >= 0)
+                    relax(state, abstraction.getClusterNode(cluster, slot), cost + sourceDistances[slot], node);
+            if (direct >= 0)
+                relax(state, targetNode, cost + direct, node);
+            return false;
+        }
+
+        int cluster = abstraction.clusterOf(cell);
+        int slot = abstraction.getSlot(node);
+        for (int other = abstraction.getClusterNodeCount(cluster) - 1; other >= 0; other--) {
+            int distance = abstraction.getDistance(cluster, slot, other);
+            if (distance > 0)
+                relax(state, abstraction.getClusterNode(cluster, other), cost + distance, node);
+        }
+        for (int i = abstraction.getAcrossCount(node) - 1; i >= 0; i--)
+            relax(state, abstraction.getAcrossNode(node, i), cost + 1, node);
+        if (cluster == targetCluster && targetDistances[slot] >= 0)
+            relax(state, targetNode, cost + targetDistances[slot], node);
+        return false;
+    }
+
+    private void relax(SearchState state, int node, int cost, int parent) {
+        if (closed.get(node) || costs[node] >= 0 && costs[node] <= cost)
+            return;
+        costs[node] = cost;
+        parents[node] = parent;
+        open.push(cost + AStarSearch.heuristic(state.getGrid(), cellOf(state, node), state.getTarget()), node);
+    }
+
+    private int cellOf(SearchState state, int node) {
+        if (node == sourceNode)
+            return state.getSource();
+        if (node == targetNode)
+            return state.getTarget();
+        return abstraction.getNodeCell(node);
+    }
+
+    /**
+    * Method that refines the abstract path to the target into the route, searching the cluster of every abstract edge
+    * inside a cluster. Where two of those paths cross, the loop between them is cut.
+    * @param state The {@link SearchState} of the search.
+    */
+    private void refine(SearchState state) {
+        MazeGrid grid = state.getGrid();
+        int length = 0;
+        for (int node = targetNode; node >= 0; node = parents[node])
+            length++;
+        int[] path = new int[length];
+        for (int node = targetNode; node >= 0; node = parents[node])
+            path[--length] = cellOf(state, node);
+
+        int[] route = new int[Math.max(16, path.length)];
+        int size = 0;
+        if (onRoute == null)
+            onRoute = new BitSet(grid.getSize());
+        route[size++] = path[0];
+        onRoute.set(path[0]);
+        for (int i = 1; i < path.length; i++) {
+            int from = path[i - 1];
+            int to = path[i];
+            boolean inside = abstraction.clusterOf(from) == abstraction.clusterOf(to);
+            // Searching from the end of the edge, the parents lead from its start to its end.
+            if (inside)
+                search.run(grid, to);
+            for (int cell = inside ? search.parentOf(from) : to; cell >= 0; cell = inside ? search.parentOf(cell) : -1) {
+                if (onRoute.get(cell)) {
+                    while (route[size - 1] != cell)
+                        onRoute.clear(route[--size]);
+                    continue;
+                }
+                if (size == route.length)
+                    route = Arrays.copyOf(route, size * 2);
+                onRoute.set(cell);
+                route[size++] = cell;
+            }
+        }
+        state.clearRoute();
+        for (int i = 0; i < size; i++) {
+            state.pushRoute(route[i]);
+            onRoute.clear(route[i]);
+        }
+    }
+}
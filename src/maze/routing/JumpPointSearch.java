@@ -0,0 +1,202 @@
+package maze.routing;
+
+import java.util.Arrays;
+import maze.MazeGrid;
+
+/**
+* {@link SearchStrategy} that runs an {@link AStarSearch} over jump points only, for mazes made of open floor areas.
+* From every expanded cell the search jumps in a straight line until it reaches the target, a wall, or a cell with a
+* forced neighbour (a neighbour only reached through that cell by a shortest route, as a wall ends next to it); only
+* the cells it stops at are pushed. Moving vertically also stops where a horizontal jump would stop, so the routes
+* keep turning where they have to. The cells in between are never expanded, which skips the many equivalent shortest
+* routes of an open area: the route is still a shortest one, but far fewer cells are expanded than by A*.
+* While searching, the route is the shortest path to the cell expanded last.
+* @author Marius Traian Hostinar
+*/
+public class JumpPointSearch implements SearchStrategy {
+
+    /**
+    * The name of the strategy.
+    */
+    public static final String NAME = "jps";
+
+    // Jump points are linked to the jump point they were reached from, every cell of the route to the cell it was walked from.
+    private int[] jumpParents;
+    private int[] costs;
+    private int[] parents;
+    private int[] lengths;
+    // The cells given a cost or a length, which are reset when the strategy is started again.
+    private int[] reached = new int[16];
+    private int reachedCount;
+    private final MinHeap open = new MinHeap();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void start(SearchState state) {
+        int size = state.getGrid().getSize();
+        if (costs == null || costs.length != size) {
+            jumpParents = new int[size];
+            costs = new int[size];
+            parents = new int[size];
+            lengths = new int[size];
+            Arrays.fill(costs, -1);
+            Arrays.fill(lengths, -1);
+        } else {
+            // A strategy answering many queries on the same grid, see MazeRouter, only resets the cells it reached.
+            for (int i = 0; i < reachedCount; i++) {
+                costs[reached[i]] = -1;
+                lengths[reached[i]] = -1;
+            }
+        }
+        reachedCount = 0;
+        open.clear();
+        int source = state.getSource();
+        jumpParents[source] = -1;
+        parents[source] = -1;
+        reach(source);
+        costs[source] = 0;
+        lengths[source] = 0;
+        open.push(AStarSearch.heuristic(state.getGrid(), source, state.getTarget()), source);
+    }
+
+    @Override
+    public boolean step(SearchState state) throws NoRouteFoundException {
+        // Jump points reached again on a shorter path are pushed again, so older entries are skipped here.
+        int cell;
+        do {
+            if (open.isEmpty())
+                throw new NoRouteFoundException();
+            cell = open.pop();
+        } while (state.isVisited(cell));
+
+        MazeGrid grid = state.getGrid();
+        walk(grid, jumpParents[cell], cell);
+        state.setVisited(cell);
+        state.traceRoute(parents, cell);
+        int target = state.getTarget();
+        if (cell == target)
+            return true;
+
+        int width = grid.getWidth();
+        int from = jumpParents[cell];
+        if (from < 0) {
+            jumpFrom(state, cell, 1, 0);
+            jumpFrom(state, cell, -1, 0);
+            jumpFrom(state, cell, 0, 1);
+            jumpFrom(state, cell, 0, -1);
+        } else if (from / width == cell / width) {
+            // Reached horizontally: going on, or turning, as going back is never shorter.
+            int dx = cell > from ? 1 : -1;
+            jumpFrom(state, cell, dx, 0);
+            jumpFrom(state, cell, 0, 1);
+            jumpFrom(state, cell, 0, -1);
+        } else {
+            int dy = cell > from ? 1 : -1;
+            jumpFrom(state, cell, 0, dy);
+            jumpFrom(state, cell, 1, 0);
+            jumpFrom(state, cell, -1, 0);
+        }
+        return false;
+    }
+
+    /**
+    * Method that jumps from an expanded cell in a direction and pushes the cell the jump stops at.
+    * @param state The {@link SearchState} of the search.
+    * @param cell The index of the expanded cell.
+    * @param dx The horizontal direction, -1, 0 or 1.
+    * @param dy The vertical direction, -1, 0 or 1.
+    */
+    private void jumpFrom(SearchState state, int cell, int dx, int dy) {
+        MazeGrid grid = state.getGrid();
+        int next = jump(grid, grid.getX(cell), grid.getY(cell), dx, dy, state.getTarget());
+        if (next < 0 || state.isVisited(next))
+            return;
+        int cost = costs[cell] + Math.abs(grid.getX(next) - grid.getX(cell)) + Math.abs(grid.getY(next) - grid.getY(cell));
+        if (costs[next] < 0 || cost < costs[next]) {
+            reach(next);
+            costs[next] = cost;
+            jumpParents[next] = cell;
+            open.push(cost + AStarSearch.heuristic(grid, next, state.getTarget()), next);
+        }
+    }
+
+    /**
+    * Method that moves in a straight line until a jump point.
+    * @param grid The {@link MazeGrid} being searched.
+    * @param x The column of the cell the jump starts from.
+    * @param y The row of the cell the jump starts from.
+    * @param dx The horizontal direction, -1, 0 or 1.
+    * @param dy The vertical direction, -1, 0 or 1.
+    * @param target The index of the target.
+    * @return Returns the index of the jump point, or -1 if a wall or the border is reached first.
+    */
+    private static int jump(MazeGrid grid, int x, int y, int dx, int dy, int target) {
+        while (true) {
+            x += dx;
+            y += dy;
+            if (!isOpen(grid, x, y))
+                return -1;
+            int cell = grid.indexOf(x, y);
+            if (cell == target)
+                return cell;
+            if (dx != 0) {
+                if (isOpen(grid, x, y + 1) && !isOpen(grid, x - dx, y + 1) || isOpen(grid, x, y - 1) && !isOpen(grid, x - dx, y - 1))
+                    return cell;
+            } else {
+                if (isOpen(grid, x + 1, y) && !isOpen(grid, x + 1, y - dy) || isOpen(grid, x - 1, y) && !isOpen(grid, x - 1, y - dy))
+                    return cell;
+                if (jump(grid, x, y, 1, 0, target) >= 0 || jump(grid, x, y, -1, 0, target) >= 0)
+                    return cell;
+            }
+        }
+    }
+
+    /**
+    * Method that remembers a cell before it is first given a cost or a length, so both can be reset.
+    * @param cell The index of the cell.
+    */
+    private void reach(int cell) {
+        if (costs[cell] >= 0 || lengths[cell] >= 0)
+            return;
+        if (reachedCount == reached.length)
+            reached = Arrays.copyOf(reached, reachedCount * 2);
+        reached[reachedCount++] = cell;
+    }
+
+    private static boolean isOpen(MazeGrid grid, int x, int y) {
+        return grid.contains(x, y) && grid.isNavigable(grid.indexOf(x, y));
+    }
+
+    /**
+    * Method that links every cell of the straight line between an expanded jump point and the one it was reached from,
+    * so the route can be traced cell by cell. A cell already linked on a shorter path keeps its link.
+    * @param grid The {@link MazeGrid} being searched.
+    * @param from The index of the jump point the line starts from, -1 for the source.
+    * @param to The index of the expanded jump point.
+    */
+    private void walk(MazeGrid grid, int from, int to) {
+        if (from < 0)
+            return;
+        int width = grid.getWidth();
+        int step = from / width == to / width ? (to > from ? 1 : -1) : (to > from ? width : -width);
+        int previous = from;
+        for (int cell = from + step; cell != to; cell += step) {
+            int length = lengths[previous] + 1;
+            if (lengths[cell] < 0 || length < lengths[cell]) {
+                reach(cell);
+                lengths[cell] = length;
+                parents[cell] = previous;
+            }
+            previous = cell;
+        }
+        if (lengths[to] < 0 || lengths[previous] + 1 < lengths[to]) {
+            reach(to);
+            lengths[to] = lengths[previous] + 1;
+            parents[to] = previous;
+        }
+    }
+}
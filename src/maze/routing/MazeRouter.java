@@ -0,0 +1,197 @@
+package maze.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import maze.Maze;
+import maze.Maze.Coordinate;
+import maze.MazeGrid;
+
+/**
+* Class that answers route queries between any two locations of a {@link Maze}, where a {@link RouteFinder} only goes
+* from the entrance to the exit. The indexes of the maze are built once, when the router is created, and shared by
+* every query: its connected components, so queries without route fail without searching, its distances to the exit,
+* so routes to the exit are read without searching, see {@link Maze#routeToExit(Coordinate)}, and the
+* {@link ClusterAbstraction} searched by the default {@link HierarchicalSearch}. A query takes a {@link SearchStrategy}
+* and a {@link SearchState} no other query is using, and gives them back to the router once answered, so queries can
+* run concurrently, see {@link #routeAll(List)}, and the next ones reuse their arrays instead of allocating them.
+* Setting a {@link maze.Tile} of the maze while queries run is not supported; the indexes are rebuilt by the next query
+* after it.
+* @author Marius Traian Hostinar
+*/
+public final class MazeRouter {
+
+    private final Maze maze;
+    private final String strategy;
+    private final ConcurrentLinkedQueue<Search> idle = new ConcurrentLinkedQueue<Search>();
+
+    /**
+    * Constructor for a router searching with a {@link HierarchicalSearch}.
+    * @param maze The {@link Maze} to route through.
+    */
+    public MazeRouter(Maze maze) {
+        this(maze, HierarchicalSearch.NAME);
+    }
+
+    /**
+    * Constructor for a router searching with a given strategy.
+    * @param maze The {@link Maze} to route through.
+    * @param strategy The name of the search strategy, see {@link SearchStrategies}.
+    * @throws IllegalArgumentException Indicates that no strategy has the given name.
+    */
+    public MazeRouter(Maze maze, String strategy) {
+        this.maze = maze;
+        this.strategy = SearchStrategies.create(strategy).getName();
+        // Building the indexes now keeps the first queries, possibly concurrent, from each building them.
+        maze.buildIndexes();
+        if (this.strategy.equals(HierarchicalSearch.NAME))
+            ClusterAbstraction.of(maze.getGrid());
+    }
+
+    /**
+    * Method that gets the {@link Maze} routed through.
+    * @return Returns the {@link Maze} of the router.
+    */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+    * Method that gets the name of the strategy the queries are searched with.
+    * @return Returns the name of the {@link SearchStrategy}.
+    */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+    * Method that finds a route between two locations.
+    * @param from The {@link Coordinate} the route starts from.
+    * @param to The {@link Coordinate} the route has to reach.
+    * @return Returns the {@link Coordinate} of every location of the route, from the first one to the last one.
+    * @throws IllegalArgumentException Indicates that a location is a wall or outside the {@link Maze}.
+    * @throws NoRouteFoundException Indicates that no route links the locations.
+    */
+    public List<Coordinate> route(Coordinate from, Coordinate to) throws NoRouteFoundException {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        if (maze.componentOf(from) != maze.componentOf(to))
+            throw new NoRouteFoundException();
+        MazeGrid grid = maze.getGrid();
+        // Routes to the exit are read from the distance field of the maze instead of searched.
+        Coordinate exit = maze.getTileLocation(maze.getExit());
+        if (exit != null && grid.indexOf(exit.getX(), exit.getY()) == target)
+            return maze.routeToExit(from);
+        Search search = idle.poll();
+        if (search == null)
+            search = new Search(SearchStrategies.create(strategy));
+        try {
+            SearchState state = search.start(grid, source, target);
+            while (!search.strategy.step(state));
+            List<Coordinate> route = new ArrayList<Coordinate>(state.getRouteSize());
+            for (int i = 0; i < state.getRouteSize(); i++) {
+                int cell = state.getRouteCell(i);
+                route.add(new Coordinate(grid.getX(cell), grid.getY(cell)));
+            }
+            return route;
+        } finally {
+            idle.offer(search);
+        }
+    }
+
+    /**
+    * Method that finds the routes of many queries in parallel.
+    * @param queries The {@link Query} instances to answer.
+    * @return Returns the route of every query in the order of the queries, as given by {@link #route}, or an empty
+    * {@link List} for a query without route.
+    * @throws IllegalArgumentException Indicates that a location of a query is a wall or outside the {@link Maze}, in
+    * which case no query is answered.
+    */
+    public List<List<Coordinate>> routeAll(List<Query> queries) {
+        for (Query query : queries) {
+            indexOf(query.getFrom());
+            indexOf(query.getTo());
+        }
+        return queries.parallelStream().map(query -> {
+            try {
+                return route(query.getFrom(), query.getTo());
+            } catch (NoRouteFoundException exception) {
+                return Collections.<Coordinate>emptyList();
+            }
+        }).collect(Collectors.toList());
+    }
+
+    private int indexOf(Coordinate coord) {
+        MazeGrid grid = maze.getGrid();
+        if (coord == null || !grid.contains(coord.getX(), coord.getY()))
+            throw new IllegalArgumentException("Location outside the maze: " + coord);
+        int index = grid.indexOf(coord.getX(), coord.getY());
+        if (!grid.isNavigable(index))
+            throw new IllegalArgumentException("Location in a wall: " + coord);
+        return index;
+    }
+
+    /**
+    * A strategy and the state it searches, used by one query at a time and kept by the router for the next ones.
+    */
+    private static final class Search {
+
+        final SearchStrategy strategy;
+        SearchState state;
+
+        Search(SearchStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        SearchState start(MazeGrid grid, int source, int target) {
+            if (state == null || state.getGrid() != grid)
+                state = new SearchState(grid, source, target);
+            else
+                state.restart(source, target);
+            strategy.start(state);
+            return state;
+        }
+    }
+
+    /**
+    * Immutable pair of the locations of a route query.
+    */
+    public static final class Query {
+
+        private final Coordinate from;
+        private final Coordinate to;
+
+        /**
+        * Constructor for a query between two locations.
+        * @param from The {@link Coordinate} the route starts from.
+        * @param to The {@link Coordinate} the route has to reach.
+        */
+        public Query(Coordinate from, Coordinate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+        * Method that gets the location the route starts from.
+        * @return Returns the first {@link Coordinate} of the route.
+        */
+        public Coordinate getFrom() {
+            return from;
+        }
+
+        /**
+        * Method that gets the location the route has to reach.
+        * @return Returns the last {@link Coordinate} of the route.
+        */
+        public Coordinate getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return from + " -> " + to;
+        }
+    }
+}
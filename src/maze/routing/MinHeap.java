@@ -0,0 +1,72 @@
+package maze.routing;
+
+import java.util.Arrays;
+
+/**
+* Binary min-heap of cells ordered by an integer priority, used by the best-first strategies.
+* Priorities and cells are packed into one long per entry so that the heap never allocates per operation.
+* @author Marius Traian Hostinar
+*/
+final class MinHeap {
+
+    private long[] entries = new long[64];
+    private int size;
+
+    /**
+    * Method that adds a cell to the heap.
+    * @param priority The priority of the cell, lower priorities come out first.
+    * @param cell The index of the cell.
+    */
+    void push(int priority, int cell) {
+        if (size == entries.length)
+            entries = Arrays.copyOf(entries, size * 2);
+        long entry = ((long) priority << 32) | (cell & 0xffffffffL);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (entries[parent] <= entry)
+                break;
+            entries[i] = entries[parent];
+            i = parent;
+        }
+        entries[i] = entry;
+    }
+
+    /**
+    * Method that removes the cell with the lowest priority.
+    * @return Returns the index of the removed cell.
+    */
+    int pop() {
+        long top = entries[0];
+        long last = entries[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && entries[child + 1] < entries[child])
+                child++;
+            if (last <= entries[child])
+                break;
+            entries[i] = entries[child];
+            i = child;
+        }
+        entries[i] = last;
+        return (int) top;
+    }
+
+    /**
+    * Method that gets the priority of the cell that {@link #pop()} would remove.
+    * @return Returns the lowest priority in the heap.
+    */
+    int peekPriority() {
+        return (int) (entries[0] >> 32);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,263 @@
+package maze.routing;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Stack;
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.Maze.Direction;
+import maze.MazeGrid;
+import maze.Tile;
+
+/**
+* Class that reads and writes the files of {@link RouteFinder#save(String)} and {@link RouteFinder#load(String)}.
+* A route file is big-endian: the magic number "ROUT", the format version, the {@link Maze} in the binary maze
+* format of {@link Maze#toBinary(Path)}, the name of the {@link SearchStrategy}, whether the dead ends are filled
+* (since version 2, see {@link RouteFinder#isFillingDeadEnds()}), whether the search is finished,
+* the number of steps performed, the route as its first cell followed by one {@link Direction} ordinal per move
+* (2 bits each, four moves per byte from the lowest bits), and the visited cells as a bitset.
+* Files written with Java serialization by older versions are recognised by their stream magic number and still read.
+* @author Marius Traian Hostinar
+*/
+final class RouteFile {
+
+    static final int MAGIC = 0x524f5554;
+    static final int VERSION = 2;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    // The largest array the JVM allocates.
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE - 8;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private RouteFile() {
+    }
+
+    /**
+    * Method that reads a route file, or a Java serialized {@link RouteFinder} written by an older version.
+    * @param text The name of the file to read.
+    * @return Returns the {@link RouteFinder} in the state it was saved in.
+    * @throws FileNotFoundException Indicates the file with the given name has not been found.
+    * @throws EOFException Indicates the file ends before the route does.
+    * @throws IOException Indicates failed or interrupted I/O operations, a file that is not a route or one too large to read.
+    * @throws ClassNotFoundException Indicates no definition for a class of a Java serialized route could be found.
+    */
+    static RouteFinder read(String text) throws IOException, ClassNotFoundException {
+        try (FileInputStream in = new FileInputStream(text)) {
+            FileChannel channel = in.getChannel();
+            // The file is read rather than mapped, a mapped file cannot be replaced on some platforms until it is unmapped.
+            if (channel.size() > MAX_FILE_SIZE)
+                throw new IOException("The route file is too large to read: " + channel.size() + " bytes, at most " + MAX_FILE_SIZE + " are supported!");
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0)
+                    break;
+            }
+            buffer.flip();
+            if (buffer.remaining() < 4)
+                throw new EOFException("The route file is incomplete!");
+            if (buffer.getShort(0) == ObjectStreamConstants.STREAM_MAGIC) {
+                channel.position(0);
+                try (ObjectInputStream objectIn = new LegacyInputStream(new BufferedInputStream(in))) {
+                    return (RouteFinder) objectIn.readObject();
+                }
+            }
+            try {
+                return read(buffer);
+            } catch (BufferUnderflowException exception) {
+                throw new EOFException("The route file is incomplete!");
+            }
+        }
+    }
+
+    /**
+    * Method that writes a route file.
+    * @param routeFinder The {@link RouteFinder} to save.
+    * @param text The name of the file to write, replaced if it exists.
+    * @throws FileNotFoundException Indicates the file with the given name cannot be created.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    static void write(RouteFinder routeFinder, String text) throws IOException {
+        SearchState state = routeFinder.getState();
+        MazeGrid grid = state.getGrid();
+        try (FileOutputStream out = new FileOutputStream(text)) {
+            FileChannel channel = out.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            drain(buffer, channel);
+            routeFinder.getMaze().toBinary(channel);
+
+            byte[] name = routeFinder.getStrategy().getName().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length).put(name);
+            buffer.put((byte) (routeFinder.isFillingDeadEnds() ? 1 : 0));
+            buffer.put((byte) (routeFinder.isFinished() ? 1 : 0));
+            buffer.putLong(routeFinder.getSteps());
+
+            int routeSize = state.getRouteSize();
+            buffer.putInt(routeSize);
+            if (routeSize > 0)
+                buffer.putInt(state.getRouteCell(0));
+            int packed = 0;
+            for (int i = 1; i < routeSize; i++) {
+                packed |= move(grid, state.getRouteCell(i - 1), state.getRouteCell(i)) << ((i - 1) % 4 * 2);
+                if (i % 4 == 0 || i == routeSize - 1) {
+                    if (!buffer.hasRemaining())
+                        drain(buffer, channel);
+                    buffer.put((byte) packed);
+                    packed = 0;
+                }
+            }
+
+            byte[] visited = state.getVisited().toByteArray();
+            if (buffer.remaining() < 4)
+                drain(buffer, channel);
+            buffer.putInt(visited.length);
+            for (int offset = 0; offset < visited.length; ) {
+                if (!buffer.hasRemaining())
+                    drain(buffer, channel);
+                int length = Math.min(buffer.remaining(), visited.length - offset);
+                buffer.put(visited, offset, length);
+                offset += length;
+            }
+            drain(buffer, channel);
+        }
+    }
+
+    private static RouteFinder read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC)
+            throw new StreamCorruptedException("The file is not a route file!");
+        int version = buffer.getInt();
+        if (version < 1 || version > VERSION)
+            throw new StreamCorruptedException("Unsupported route file version " + version + "!");
+        Maze maze;
+        try {
+            maze = Maze.fromBinary(buffer);
+        } catch (InvalidMazeException exception) {
+            InvalidObjectException invalid = new InvalidObjectException(exception.getMessage());
+            invalid.initCause(exception);
+            throw invalid;
+        }
+
+        byte[] name = new byte[buffer.getShort() & 0xffff];
+        buffer.get(name);
+        SearchStrategy strategy;
+        try {
+            strategy = SearchStrategies.create(new String(name, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidObjectException(exception.getMessage());
+        }
+        // The route and the visited cells are only valid on the grid they were searched on.
+        boolean fillDeadEnds = version >= 2 && buffer.get() != 0;
+        boolean finished = buffer.get() != 0;
+        long steps = buffer.getLong();
+
+        MazeGrid grid = maze.getGrid();
+        int routeSize = buffer.getInt();
+        if (routeSize < 0 || (routeSize + 2L) / 4 > buffer.remaining())
+            throw new EOFException("The route file is incomplete!");
+        int[] route = new int[routeSize];
+        if (routeSize > 0)
+            route[0] = buffer.getInt();
+        if (routeSize > 0 && (route[0] < 0 || route[0] >= grid.getSize()))
+            throw new InvalidObjectException("The route leaves the maze!");
+        int packed = 0;
+        for (int i = 1; i < routeSize; i++) {
+            if ((i - 1) % 4 == 0)
+                packed = buffer.get() & 0xff;
+            route[i] = grid.getAdjacentIndex(route[i - 1], DIRECTIONS[(packed >>> ((i - 1) % 4 * 2)) & 3]);
+            if (route[i] < 0)
+                throw new InvalidObjectException("The route leaves the maze!");
+        }
+
+        int visitedSize = buffer.getInt();
+        if (visitedSize < 0 || visitedSize > buffer.remaining())
+            throw new EOFException("The route file is incomplete!");
+        byte[] visited = new byte[visitedSize];
+        buffer.get(visited);
+
+        RouteFinder routeFinder = new RouteFinder(maze, strategy, fillDeadEnds);
+        if (finished || strategy instanceof DepthFirstSearch) {
+            // The route and the visited cells are the whole state of these searches.
+            routeFinder.restore(finished, steps, route, BitSet.valueOf(visited));
+        } else {
+            // The frontier of the other strategies is not saved, the same steps rebuild it.
+            try {
+                routeFinder.solve(steps);
+            } catch (NoRouteFoundException exception) {
+                throw new InvalidObjectException("The saved steps do not replay!");
+            }
+        }
+        return routeFinder;
+    }
+
+    private static int move(MazeGrid grid, int from, int to) {
+        for (Direction dir : DIRECTIONS)
+            if (grid.getAdjacentIndex(from, dir) == to)
+                return dir.ordinal();
+        throw new IllegalStateException("The route cells " + from + " and " + to + " are not adjacent!");
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+    * {@link ObjectInputStream} that reads a {@link RouteFinder} serialized by a version of the class whose serialVersionUID
+    * differs from the current one, through the {@link LegacyRouteFinder} with the fields that version had.
+    */
+    private static class LegacyInputStream extends ObjectInputStream {
+
+        LegacyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass descriptor = super.readClassDescriptor();
+            if (descriptor.getName().equals(RouteFinder.class.getName())
+                    && descriptor.getSerialVersionUID() != ObjectStreamClass.lookup(RouteFinder.class).getSerialVersionUID())
+                return ObjectStreamClass.lookup(LegacyRouteFinder.class);
+            return descriptor;
+        }
+    }
+
+    /**
+    * {@link Serializable} class with the fields of a {@link RouteFinder} written before its serialVersionUID was fixed.
+    */
+    private static class LegacyRouteFinder implements Serializable {
+
+        private static final long serialVersionUID = 2076132366370125337L;
+
+        private boolean finished;
+        private Maze maze;
+        private Stack<Tile> route;
+        private ArrayList<Tile> tilesVisited;
+
+        private Object readResolve() throws ObjectStreamException {
+            RouteFinder routeFinder = new RouteFinder(maze);
+            routeFinder.restore(finished, route, tilesVisited);
+            return routeFinder;
+        }
+    }
+}
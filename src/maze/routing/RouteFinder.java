@@ -1,17 +1,20 @@
 package maze.routing;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import maze.Tile;
 import maze.Maze;
+import maze.MazeGrid;
 import java.util.Stack;
-import maze.Maze.Direction;
+import maze.Maze.Coordinate;
 import java.util.List;
 
 /**
@@ -20,20 +23,63 @@ import java.util.List;
 */
 public class RouteFinder implements Serializable{
 
+    private static final long serialVersionUID = -7959035275758055494L;
+
+    // Keeps the serialized form identical to the one written when the visited tiles were kept in a list.
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("maze", Maze.class),
+        new ObjectStreamField("route", Stack.class),
+        new ObjectStreamField("finished", boolean.class),
+        new ObjectStreamField("tilesVisited", ArrayList.class)
+    };
+
     private Maze maze;
-    private Stack<Tile> route;
     private boolean finished;
-    private ArrayList<Tile> tilesVisited;
+    private transient SearchStrategy strategy;
+    private transient SearchState state;
+    private transient long steps;
+    private transient boolean deadEndsFilled;
+    private transient int pruned;
 
     /**
-    * Constructor for a RouteFinder, that uses a {@link java.util.Stack} to maintain state as it steps through the {@link Maze} from the entrance to the exit. 
+    * Constructor for a RouteFinder, that uses a stack of cell indices to maintain state as it steps through the {@link Maze} from the entrance to the exit.
+    * The route is searched depth-first, see {@link DepthFirstSearch}.
     * @param maze The given {@link Maze} to find a route for.
     */
     public RouteFinder(Maze maze){
+        this(maze, new DepthFirstSearch());
+    }
+
+    /**
+    * Constructor for a RouteFinder that searches the {@link Maze} from the entrance to the exit with a given {@link SearchStrategy}.
+    * @param maze The given {@link Maze} to find a route for.
+    * @param strategy The {@link SearchStrategy} driving the search, used by this RouteFinder only.
+    */
+    public RouteFinder(Maze maze, SearchStrategy strategy){
+        this(maze, strategy, false);
+    }
+
+    /**
+    * Constructor for a RouteFinder that can fill the dead ends of the {@link Maze} before searching it, see {@link DeadEndFilling}.
+    * With dead ends filled, the search runs on a reduced copy of the {@link MazeGrid}, so tiles set afterwards are not seen.
+    * @param maze The given {@link Maze} to find a route for.
+    * @param strategy The {@link SearchStrategy} driving the search, used by this RouteFinder only.
+    * @param fillDeadEnds Whether the dead ends are filled before searching.
+    */
+    public RouteFinder(Maze maze, SearchStrategy strategy, boolean fillDeadEnds){
         this.maze = maze;
-        this.route = new Stack<Tile>();
-        this.tilesVisited = new ArrayList<Tile>();
-        route.push(maze.getEntrance());
+        this.strategy = strategy;
+        this.deadEndsFilled = fillDeadEnds;
+        int entrance = indexOf(maze.getEntrance());
+        int exit = indexOf(maze.getExit());
+        MazeGrid grid = maze.getGrid();
+        if (fillDeadEnds && entrance >= 0 && exit >= 0) {
+            DeadEndFilling filling = DeadEndFilling.fill(grid, entrance, exit);
+            grid = filling.getGrid();
+            pruned = filling.getPrunedCount();
+        }
+        this.state = new SearchState(grid, entrance, exit);
+        strategy.start(state);
     }
 
     /**
@@ -44,12 +90,20 @@ public class RouteFinder implements Serializable{
         return maze;
     }
 
+    /**
+    * Method that gets the {@link SearchStrategy} used to search the {@link Maze}.
+    * @return Returns the {@link SearchStrategy} of this RouteFinder.
+    */
+    public SearchStrategy getStrategy() {
+        return strategy;
+    }
+
     /**
     * Method that gets the current route. 
     * @return Returns a {@link List} of {@link Tile} representing the current (complete or incomplete) route, from start to end.
     */
     public List<Tile> getRoute() {
-        return route;
+        return new RouteView();
     }
 
     /**
@@ -62,6 +116,7 @@ public class RouteFinder implements Serializable{
 
     /**
     * Method that loads the {@link Maze} from a given {@link File}. 
+    * Both the route format written by {@link #save(String)} and the Java serialized files of older versions are read, see {@link RouteFile}.
     * @param text Given {@link File} for the text to be loaded from.
     * @return Returns a {@link RouteFinder} that will be loaded to a given {@link File}.
     * @throws FileNotFoundException Indicates the {@link File} with the given name has not been found.
@@ -69,35 +124,24 @@ public class RouteFinder implements Serializable{
     * @throws ClassNotFoundException Indicates no definition for the class with the specified name could be found.
     */
     public static RouteFinder load(String text) throws FileNotFoundException, IOException, ClassNotFoundException{
-        RouteFinder routeFinder;
-
-        FileInputStream fileIn = new FileInputStream(text);
-        ObjectInputStream objectIn = new ObjectInputStream(fileIn);
-        routeFinder = (RouteFinder) objectIn.readObject();
-
-        objectIn.close();
-
-        return routeFinder;
+        return RouteFile.read(text);
     }
 
     /**
     * Method that saves the {@link Maze} to a given {@link File}.
+    * The packed maze, the route and the visited tiles are written in the compact route format, see {@link RouteFile}.
     * @param text Given {@link File} for the text to be saved in.
     * @throws FileNotFoundException Indicates the {@link File} with the given name has not been found.
     * @throws IOException Indicates failed or interrupted I/O operations.
     */
     public void save(String text) throws FileNotFoundException, IOException {
-        FileOutputStream fileOut = new FileOutputStream(text);
-        ObjectOutputStream objectOut = new ObjectOutputStream(fileOut);
-
-        objectOut.writeObject(this);
-
-        objectOut.close();
+        RouteFile.write(this, text);
     }
 
     /**
     * Method that steps through the {@link Maze} trying to finde a route from the entrance to the exit and eventually solve it.
-    * This method is also responsible for updating the {@link Stack} that holds route-finding state.
+    * This method is also responsible for updating the stack that holds route-finding state.
+    * A {@link Maze} without route is rejected on the first step, without searching it.
     * @return Returns a boolean True if the method can perform a step through the {@link Maze} and False if it cannot.  
     * @throws NoRouteFoundException Indicates that no route has been found.
     */
@@ -105,58 +149,57 @@ public class RouteFinder implements Serializable{
         if(isFinished() == true)
             return true;
         
-        if(route.size() == 0){
-            throw new NoRouteFoundException();
-        }
-
-        Tile lastTileTraveled = route.peek();  
+        ensureSolvable();
+        finished = strategy.step(state);
+        steps++;
+        return finished;
+    }
 
-        Tile nextNorth = maze.getAdjacentTile(lastTileTraveled, Direction.NORTH);
-        Tile nextSouth = maze.getAdjacentTile(lastTileTraveled, Direction.SOUTH);
-        Tile nextEast  = maze.getAdjacentTile(lastTileTraveled, Direction.EAST);
-        Tile nextWest  = maze.getAdjacentTile(lastTileTraveled, Direction.WEST);
+    /**
+    * Method that steps through the {@link Maze} until it is solved, taking the same steps as repeated calls to {@link #step()}.
+    * @return Returns a boolean True once the {@link Maze} is solved.
+    * @throws NoRouteFoundException Indicates that no route has been found.
+    */
+    public boolean solve() throws NoRouteFoundException{
+        return solve(Long.MAX_VALUE);
+    }
 
-        if(lastTileTraveled.equals(maze.getExit())){
-            finished = true;
-            return true;
-        }
-        tilesVisited.add(lastTileTraveled);
-
-        if(nextNorth != null && !tilesVisited.contains(nextNorth) && nextNorth.isNavigable()){
-            route.push(nextNorth);
-            if(nextNorth.equals(maze.getExit())){
-                finished = true;
-                return true;
-            }
-            return false;
-        }
-        else if(nextSouth != null && !tilesVisited.contains(nextSouth) && nextSouth.isNavigable()){
-            route.push(nextSouth);
-            if(nextSouth.equals(maze.getExit())){
-                finished = true;
-                return true;
-            }
-            return false;
-        }
-        else if(nextEast != null && !tilesVisited.contains(nextEast) && nextEast.isNavigable()){
-            route.push(nextEast);
-            if(nextEast.equals(maze.getExit())){
-                finished = true;
-                return true;
-            }
-            return false;
+    /**
+    * Method that performs at most a given number of steps through the {@link Maze}, taking the same steps as repeated calls to {@link #step()}.
+    * The strategies work on cell indices only, so no object is allocated per step.
+    * @param maxSteps The maximum number of steps to perform.
+    * @return Returns a boolean True if the {@link Maze} is solved and False if the steps ran out first.
+    * @throws NoRouteFoundException Indicates that no route has been found.
+    */
+    public boolean solve(long maxSteps) throws NoRouteFoundException{
+        if (!finished && maxSteps > 0)
+            ensureSolvable();
+        for (long done = 0; done < maxSteps && !finished; done++) {
+            finished = strategy.step(state);
+            steps++;
         }
-        else if(nextWest != null && !tilesVisited.contains(nextWest) && nextWest.isNavigable()){
-            route.push(nextWest);
+        return finished;
+    }
+
+    /**
+    * Method that fails fast when the entrance and the exit are not connected, rather than once every cell reachable
+    * from the entrance has been searched, see {@link Maze#isSolvable()}.
+    * @throws NoRouteFoundException Indicates that there is no route.
+    */
+    private void ensureSolvable() throws NoRouteFoundException{
+        if (!maze.isSolvable())
+            throw new NoRouteFoundException();
+    }
 
-            if(nextWest.equals(maze.getExit())){
-                finished = true;
-                return true;
-            }
-            return false;
-        }  
-        route.pop();  
-        return false;
+    /**
+    * Method that takes an immutable snapshot of the progress of the search, for a thread other than the one running it.
+    * It must be called by the thread running the search; every snapshot but the first full one only gives the cells
+    * changed since the previous snapshot.
+    * @param full Whether the snapshot has to give every cell rather than the changed ones.
+    * @return Returns the {@link SearchSnapshot} of the search.
+    */
+    public SearchSnapshot snapshot(boolean full) {
+        return SearchSnapshot.take(this, steps, full);
     }
 
     /**
@@ -165,25 +208,28 @@ public class RouteFinder implements Serializable{
     */
     @Override
     public String toString() {
-        String result = "";
-        for (int y = maze.getTiles().size() - 1; y >= 0 ; y--){
-            result += Integer.toString(y) + "    ";
-            for (int x = 0; x < maze.getTiles().get(y).size(); x++){ 
-                Tile tile = maze.getTiles().get(y).get(x);
-                if(route.contains(tile))
-                    result += "* ";
-                else if(tilesVisited.contains(tile)){
-                    result += "- ";
-                }
-                else
-                    result += (tile.toString()) + " ";
-            }
-            result += "\n";
+        StringBuilder result = new StringBuilder(maze.getGrid().getTextLength());
+        try {
+            writeTo(result);
+        } catch (IOException exception) {
+            // A StringBuilder never fails to append.
+            throw new IllegalStateException(exception);
         }
-        result += "\n" + "     ";
-        for(int i = 0; i < maze.getTiles().get(0).size(); i++)
-            result += Integer.toString(i) + " ";
-        return result;
+        return result.toString();
+    }
+
+    /**
+    * Method that writes the text form of the maze including the route, the same as {@link #toString()}, one row at
+    * a time so mazes whose text does not fit in memory can be written to a file.
+    * @param out The sink of the text, a file should be written through a buffered {@link java.io.Writer}.
+    * @throws IOException Indicates failed or interrupted I/O operations of the sink.
+    */
+    public void writeTo(Appendable out) throws IOException {
+        MazeGrid grid = maze.getGrid();
+        BitSet onRoute = new BitSet(grid.getSize());
+        for (int i = 0; i < state.getRouteSize(); i++)
+            onRoute.set(state.getRouteCell(i));
+        grid.writeTo(out, index -> onRoute.get(index) ? '*' : state.isVisited(index) ? '-' : grid.getSymbol(index));
     }
 
     /**
@@ -192,9 +238,148 @@ public class RouteFinder implements Serializable{
     * @return Returns a boolean True if the {@link Tile} is visited and a boolean False if it is not.
     */
     public boolean isVisited (Tile tile){ 
-        if(tilesVisited.contains(tile))
-            return true;
-        else 
-            return false;
+        int index = indexOf(tile);
+        return index >= 0 && state.isVisited(index);
+    }
+
+    /**
+    * Method that gets the index of a {@link Tile} in the {@link MazeGrid} of the {@link Maze}.
+    * @param tile A specific {@link Tile}.
+    * @return Returns the index of the {@link Tile} or -1 if it is not part of the {@link Maze}.
+    */
+    private int indexOf(Tile tile){
+        Coordinate location = maze.getTileLocation(tile);
+        if(location == null)
+            return -1;
+        return maze.getGrid().indexOf(location.getX(), location.getY());
+    }
+
+    /**
+    * Method that gets the state of the search, so views can read the route and the visited cells by index without
+    * creating a {@link Tile} per cell. The state must not be changed.
+    * @return Returns the {@link SearchState} of this RouteFinder.
+    */
+    public SearchState getState() {
+        return state;
+    }
+
+    /**
+    * Method that gets the number of steps performed without an exception.
+    * @return Returns the number of steps performed since the search started.
+    */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+    * Method that checks if the dead ends were to be filled before searching, as given to the constructor.
+    * @return Returns a boolean True if the dead ends are filled and a boolean False if they are not.
+    */
+    public boolean isFillingDeadEnds() {
+        return deadEndsFilled;
+    }
+
+    /**
+    * Method that gets the number of dead end cells filled before the search started.
+    * @return Returns the number of cells pruned by {@link DeadEndFilling}, 0 if the dead ends were not filled.
+    */
+    public int getPrunedCount() {
+        return pruned;
+    }
+
+    /**
+    * Method that replaces the state of the search with a saved one.
+    * @param finished The status of the saved search.
+    * @param steps The number of steps performed by the saved search.
+    * @param route The cells of the saved route, from the entrance.
+    * @param visited The cells visited by the saved search.
+    */
+    void restore(boolean finished, long steps, int[] route, BitSet visited) {
+        this.finished = finished;
+        this.steps = steps;
+        state.clearRoute();
+        for (int cell : route)
+            state.pushRoute(cell);
+        state.getVisited().or(visited);
+    }
+
+    /**
+    * Method that replaces the state of the search with one saved as lists of {@link Tile}, as older versions did.
+    * @param finished The status of the saved search.
+    * @param route The {@link Tile} instances of the saved route, from the entrance.
+    * @param visited The {@link Tile} instances visited by the saved search.
+    * @throws InvalidObjectException Indicates a {@link Tile} of the route is not part of the {@link Maze}.
+    */
+    void restore(boolean finished, List<Tile> route, List<Tile> visited) throws InvalidObjectException {
+        this.finished = finished;
+        state.clearRoute();
+        for (Tile tile : route) {
+            int index = indexOf(tile);
+            if (index < 0)
+                throw new InvalidObjectException("The route leaves the maze!");
+            state.pushRoute(index);
+        }
+        for (Tile tile : visited) {
+            int index = indexOf(tile);
+            if (index >= 0)
+                state.getVisited().set(index);
+        }
+    }
+
+    /**
+    * Method that writes the route as a {@link Stack} and the visited tiles as a {@link List}, the form used before they were kept as cell indices.
+    * @param out The {@link ObjectOutputStream} to write to.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        MazeGrid grid = maze.getGrid();
+        Stack<Tile> tiles = new Stack<Tile>();
+        tiles.addAll(getRoute());
+        BitSet visited = state.getVisited();
+        ArrayList<Tile> tilesVisited = new ArrayList<Tile>(visited.cardinality());
+        for (int index = visited.nextSetBit(0); index >= 0; index = visited.nextSetBit(index + 1))
+            tilesVisited.add(maze.getTileAtLocation(new Coordinate(grid.getX(index), grid.getY(index))));
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("maze", maze);
+        fields.put("route", tiles);
+        fields.put("finished", finished);
+        fields.put("tilesVisited", tilesVisited);
+        out.writeFields();
+    }
+
+    /**
+    * Method that reads the route and the visited tiles written as lists of {@link Tile} back into cell indices.
+    * @param in The {@link ObjectInputStream} to read from.
+    * @throws IOException Indicates failed or interrupted I/O operations.
+    * @throws ClassNotFoundException Indicates no definition for a serialized class could be found.
+    */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        maze = (Maze) fields.get("maze", null);
+        // Only depth-first searches were saved in this form, and their route and visited tiles are their whole state.
+        strategy = new DepthFirstSearch();
+        state = new SearchState(maze.getGrid(), indexOf(maze.getEntrance()), indexOf(maze.getExit()));
+        restore(fields.get("finished", false), (Stack<Tile>) fields.get("route", null), (List<Tile>) fields.get("tilesVisited", null));
+        strategy.start(state);
+    }
+
+    /**
+    * Read-only {@link List} view of the route, from the entrance to the last cell reached.
+    */
+    private class RouteView extends AbstractList<Tile> {
+
+        @Override
+        public Tile get(int i) {
+            MazeGrid grid = maze.getGrid();
+            int cell = state.getRouteCell(i);
+            return maze.getTileAtLocation(new Coordinate(grid.getX(cell), grid.getY(cell)));
+        }
+
+        @Override
+        public int size() {
+            return state.getRouteSize();
+        }
     }
 }
\ No newline at end of file
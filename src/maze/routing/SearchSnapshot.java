@@ -0,0 +1,166 @@
+package maze.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import maze.MazeGrid;
+
+/**
+* Immutable snapshot of the progress of a {@link RouteFinder}, taken by {@link RouteFinder#snapshot(boolean)} on the
+* thread running the search and safe to read on any other. A full snapshot gives the mark of every cell; any other
+* only gives the cells whose mark changed since the previous snapshot, so it is as small as the steps taken in between.
+* @author Marius Traian Hostinar
+*/
+public final class SearchSnapshot {
+
+    /** Mark of a cell the search has not reached. */
+    public static final int NONE = 0;
+    /** Mark of a visited cell that is not on the route. */
+    public static final int VISITED = 1;
+    /** Mark of a cell on the route, except its last one. */
+    public static final int ROUTE = 2;
+    /** Mark of the last cell of the route. */
+    public static final int HEAD = 3;
+
+    private final long steps;
+    private final boolean finished;
+    private final int routeSize;
+    private final int head;
+    private final BitSet visited;
+    private final BitSet onRoute;
+    private final int[] changedCells;
+    private final byte[] changedMarks;
+
+    private SearchSnapshot(long steps, boolean finished, int routeSize, int head, BitSet visited, BitSet onRoute, int[] changedCells, byte[] changedMarks) {
+        this.steps = steps;
+        this.finished = finished;
+        this.routeSize = routeSize;
+        this.head = head;
+        this.visited = visited;
+        this.onRoute = onRoute;
+        this.changedCells = changedCells;
+        this.changedMarks = changedMarks;
+    }
+
+    /**
+    * Method that takes a snapshot of a search, and forgets the changes it recorded so far.
+    * @param routeFinder The {@link RouteFinder} running the search.
+    * @param steps The number of steps performed by the search.
+    * @param full Whether every cell has to be given, a partial snapshot is also full if the changes were not all recorded.
+    * @return Returns the new SearchSnapshot.
+    */
+    static SearchSnapshot take(RouteFinder routeFinder, long steps, boolean full) {
+        SearchState state = routeFinder.getState();
+        state.recordChanges();
+        int routeSize = state.getRouteSize();
+        int head = routeSize == 0 ? -1 : state.peekRoute();
+        Changes changes = new Changes();
+        boolean complete = state.drainChanges(changes);
+        if (full || !complete) {
+            MazeGrid grid = state.getGrid();
+            BitSet onRoute = new BitSet(grid.getSize());
+            for (int i = 0; i < routeSize; i++)
+                onRoute.set(state.getRouteCell(i));
+            return new SearchSnapshot(steps, routeFinder.isFinished(), routeSize, head, (BitSet) state.getVisited().clone(), onRoute, null, null);
+        }
+        int[] cells = Arrays.copyOf(changes.cells, changes.count);
+        byte[] marks = new byte[cells.length];
+        for (int i = 0; i < cells.length; i++)
+            marks[i] = (byte) mark(state.isVisited(cells[i]), state.isOnRoute(cells[i]), cells[i] == head);
+        return new SearchSnapshot(steps, routeFinder.isFinished(), routeSize, head, null, null, cells, marks);
+    }
+
+    /**
+    * Method that gets the number of steps performed when the snapshot was taken.
+    * @return Returns the number of steps performed since the search started.
+    */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+    * Method that returns the status of the search when the snapshot was taken.
+    * @return Returns a boolean True if the search was finished and a boolean False if it was not.
+    */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+    * Method that gets the number of cells on the route when the snapshot was taken.
+    * @return Returns the length of the route.
+    */
+    public int getRouteSize() {
+        return routeSize;
+    }
+
+    /**
+    * Method that checks if the snapshot gives the mark of every cell.
+    * @return Returns a boolean True if {@link #getMark(int)} can be called and a boolean False if only the changed cells are given.
+    */
+    public boolean isFull() {
+        return visited != null;
+    }
+
+    /**
+    * Method that gets the mark of a cell in a full snapshot.
+    * @param cell The index of the cell.
+    * @return Returns {@link #NONE}, {@link #VISITED}, {@link #ROUTE} or {@link #HEAD}.
+    * @throws IllegalStateException Indicates the snapshot is not full.
+    */
+    public int getMark(int cell) {
+        if (visited == null)
+            throw new IllegalStateException("The snapshot only holds the changed cells!");
+        return mark(visited.get(cell), onRoute.get(cell), cell == head);
+    }
+
+    /**
+    * Method that gets the number of cells whose mark changed since the previous snapshot, 0 for a full snapshot.
+    * @return Returns the number of changed cells.
+    */
+    public int getChangeCount() {
+        return changedCells == null ? 0 : changedCells.length;
+    }
+
+    /**
+    * Method that gets a cell whose mark changed since the previous snapshot.
+    * @param i The position of the change, from 0 to {@link #getChangeCount()} excluded.
+    * @return Returns the index of the changed cell.
+    */
+    public int getChangedCell(int i) {
+        return changedCells[i];
+    }
+
+    /**
+    * Method that gets the mark of a cell whose mark changed since the previous snapshot.
+    * @param i The position of the change, from 0 to {@link #getChangeCount()} excluded.
+    * @return Returns {@link #NONE}, {@link #VISITED}, {@link #ROUTE} or {@link #HEAD}.
+    */
+    public int getChangedMark(int i) {
+        return changedMarks[i];
+    }
+
+    private static int mark(boolean visited, boolean onRoute, boolean head) {
+        if (head)
+            return HEAD;
+        if (onRoute)
+            return ROUTE;
+        return visited ? VISITED : NONE;
+    }
+
+    /**
+    * Consumer collecting the changed cells drained from a {@link SearchState}.
+    */
+    private static final class Changes implements IntConsumer {
+
+        int[] cells = new int[16];
+        int count;
+
+        @Override
+        public void accept(int cell) {
+            if (count == cells.length)
+                cells = Arrays.copyOf(cells, count * 2);
+            cells[count++] = cell;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package maze.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import maze.MazeGrid;
+
+/**
+* Class that holds the observable state of a search through a {@link MazeGrid}: the current route, from the source
+* to the last cell reached, and the cells visited so far. Cells are identified by their {@link MazeGrid} index.
+* Views can have the state record the cells whose route or visited status changes, so they only redraw those.
+* @author Marius Traian Hostinar
+*/
+public final class SearchState {
+
+    // Beyond this many unread changes the recording stops, and the reader redraws everything instead.
+    private static final int MAX_CHANGES = 1 << 20;
+
+    private final MazeGrid grid;
+    private int source;
+    private int target;
+    private final BitSet visited;
+    private int[] route = new int[16];
+    private int routeSize;
+    private int[] spareRoute;
+    private int[] tracedParents;
+    private int tracedCell = -1;
+    private long expanded;
+    private BitSet onRoute;
+    private BitSet traced;
+    private int[] changes;
+    private int changeCount;
+    private boolean changesLost;
+
+    /**
+    * Constructor for a search state whose route only holds the source cell.
+    * @param grid The {@link MazeGrid} being searched.
+    * @param source The index of the cell the route starts from.
+    * @param target The index of the cell the route has to reach.
+    */
+    public SearchState(MazeGrid grid, int source, int target) {
+        this.grid = grid;
+        this.source = source;
+        this.target = target;
+        this.visited = new BitSet(grid.getSize());
+        pushRoute(source);
+    }
+
+    /**
+    * Method that starts the state over for another search of the same {@link MazeGrid}, keeping its buffers, so a
+    * {@link MazeRouter} answering many queries does not allocate them again. Changes are no longer recorded.
+    * @param source The index of the cell the route starts from.
+    * @param target The index of the cell the route has to reach.
+    */
+    void restart(int source, int target) {
+        this.source = source;
+        this.target = target;
+        visited.clear();
+        expanded = 0;
+        tracedCell = -1;
+        routeSize = 0;
+        onRoute = null;
+        traced = null;
+        changes = null;
+        changeCount = 0;
+        changesLost = false;
+        pushRoute(source);
+    }
+
+    /**
+    * Method that gets the {@link MazeGrid} being searched.
+    * @return Returns the {@link MazeGrid} of the search.
+    */
+    public MazeGrid getGrid() {
+        return grid;
+    }
+
+    /**
+    * Method that gets the cell the route starts from.
+    * @return Returns the index of the source cell.
+    */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+    * Method that gets the cell the route has to reach.
+    * @return Returns the index of the target cell.
+    */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+    * Method that gets the number of cells on the route.
+    * @return Returns the length of the route.
+    */
+    public int getRouteSize() {
+        resolveRoute();
+        return routeSize;
+    }
+
+    /**
+    * Method that gets a cell of the route.
+    * @param i The position on the route, 0 being the source.
+    * @return Returns the index of the cell at the given position.
+    */
+    public int getRouteCell(int i) {
+        resolveRoute();
+        if (i < 0 || i >= routeSize)
+            throw new IndexOutOfBoundsException("Index " + i + " is outside the route!");
+        return route[i];
+    }
+
+    /**
+    * Method that gets the last cell of the route.
+    * @return Returns the index of the last cell of the route.
+    */
+    public int peekRoute() {
+        return getRouteCell(getRouteSize() - 1);
+    }
+
+    /**
+    * Method that adds a cell at the end of the route.
+    * @param cell The index of the cell.
+    */
+    public void pushRoute(int cell) {
+        resolveRoute();
+        if (routeSize == route.length)
+            route = Arrays.copyOf(route, routeSize * 2);
+        route[routeSize++] = cell;
+        if (onRoute != null) {
+            // The previous last cell is no longer the head of the route.
+            if (routeSize > 1)
+                changed(route[routeSize - 2]);
+            onRoute.set(cell);
+            changed(cell);
+        }
+    }
+
+    /**
+    * Method that removes the last cell of the route.
+    * @return Returns the index of the removed cell.
+    */
+    public int popRoute() {
+        int cell = peekRoute();
+        routeSize--;
+        if (onRoute != null) {
+            onRoute.clear(cell);
+            changed(cell);
+            if (routeSize > 0)
+                changed(route[routeSize - 1]);
+        }
+        return cell;
+    }
+
+    /**
+    * Method that empties the route.
+    */
+    public void clearRoute() {
+        if (onRoute != null)
+            leaveRoute();
+        tracedCell = -1;
+        routeSize = 0;
+    }
+
+    /**
+    * Method that replaces the route with the path found by following parent links back from a cell.
+    * The path is only rebuilt when the route is next read, so a search can call this on every step for free, even
+    * while changes are recorded: the cells that changed are then found by comparing the path with the route it replaces.
+    * @param parents The parent of every cell reached by the search, -1 for the first cell of the path.
+    * @param cell The index of the last cell of the path.
+    */
+    public void traceRoute(int[] parents, int cell) {
+        tracedParents = parents;
+        tracedCell = cell;
+    }
+
+    /**
+    * Method that checks if a cell has been visited.
+    * @param cell The index of the cell.
+    * @return Returns a boolean True if the cell is visited and a boolean False if it is not.
+    */
+    public boolean isVisited(int cell) {
+        return visited.get(cell);
+    }
+
+    /**
+    * Method that marks a cell as visited and counts it as expanded by the search.
+    * @param cell The index of the cell.
+    */
+    public void setVisited(int cell) {
+        visited.set(cell);
+        expanded++;
+        changed(cell);
+    }
+
+    /**
+    * Method that gets the visited cells.
+    * @return Returns a {@link BitSet} where the bit of every visited cell is set.
+    */
+    public BitSet getVisited() {
+        return visited;
+    }
+
+    /**
+    * Method that gets the number of times a cell has been expanded (marked as visited) by the search.
+    * @return Returns the number of expanded cells.
+    */
+    public long getExpandedCount() {
+        return expanded;
+    }
+
+    /**
+    * Method that checks if a cell is on the route. It takes constant time once changes are recorded, and a time
+    * proportional to the length of the route before.
+    * @param cell The index of the cell.
+    * @return Returns a boolean True if the cell is on the route and a boolean False if it is not.
+    */
+    public boolean isOnRoute(int cell) {
+        resolveRoute();
+        if (onRoute != null)
+            return onRoute.get(cell);
+        for (int i = 0; i < routeSize; i++)
+            if (route[i] == cell)
+                return true;
+        return false;
+    }
+
+    /**
+    * Method that starts recording the cells whose route or visited status changes, read by {@link #drainChanges(IntConsumer)}.
+    * A depth-first step records at most three cells. A traced route, see {@link #traceRoute(int[], int)}, is compared
+    * with the previous one when it is next read, so only the cells joining or leaving the route are recorded, however
+    * many steps traced it since. Calling it again while recording has no effect.
+    */
+    public void recordChanges() {
+        if (onRoute != null)
+            return;
+        resolveRoute();
+        onRoute = new BitSet(grid.getSize());
+        for (int i = 0; i < routeSize; i++)
+            onRoute.set(route[i]);
+        traced = new BitSet(grid.getSize());
+        changes = new int[16];
+    }
+
+    /**
+    * Method that reads and forgets the changes recorded since the last call, a cell may be given more than once.
+    * @param changed The consumer given the index of every changed cell.
+    * @return Returns a boolean True if every change was given and a boolean False if too many changes were made
+    * since the last call to record them all, or if changes are not recorded; then the whole state has to be read again.
+    */
+    public boolean drainChanges(IntConsumer changed) {
+        if (onRoute == null)
+            return false;
+        resolveRoute();
+        for (int i = 0; i < changeCount; i++)
+            changed.accept(changes[i]);
+        boolean complete = !changesLost;
+        changeCount = 0;
+        changesLost = false;
+        return complete;
+    }
+
+    private void changed(int cell) {
+        if (changes == null || changesLost)
+            return;
+        if (changeCount == changes.length) {
+            if (changeCount == MAX_CHANGES) {
+                changesLost = true;
+                return;
+            }
+            changes = Arrays.copyOf(changes, changeCount * 2);
+        }
+        changes[changeCount++] = cell;
+    }
+
+    private void leaveRoute() {
+        for (int i = 0; i < routeSize; i++) {
+            onRoute.clear(route[i]);
+            changed(route[i]);
+        }
+    }
+
+    private void resolveRoute() {
+        if (tracedCell < 0)
+            return;
+        int length = 0;
+        for (int cell = tracedCell; cell >= 0; cell = tracedParents[cell])
+            length++;
+        // While recording, the previous route is kept until it has been compared with the traced one.
+        int[] resolved = onRoute == null ? route : spareRoute;
+        if (resolved == null || resolved.length < length)
+            resolved = new int[Math.max(length, route.length * 2)];
+        int i = length;
+        for (int cell = tracedCell; cell >= 0; cell = tracedParents[cell])
+            resolved[--i] = cell;
+        tracedCell = -1;
+        if (onRoute != null) {
+            replaceRoute(resolved, length);
+            spareRoute = route;
+        }
+        route = resolved;
+        routeSize = length;
+    }
+
+    /**
+    * Method that records the cells joining or leaving the route, and both last cells, when the route is replaced.
+    * Both routes start from the same cells, which are skipped, so the time is proportional to the rest of them.
+    * @param next The cells of the new route.
+    * @param nextSize The length of the new route.
+    */
+    private void replaceRoute(int[] next, int nextSize) {
+        int common = 0;
+        while (common < routeSize && common < nextSize && route[common] == next[common])
+            common++;
+        for (int i = common; i < nextSize; i++)
+            traced.set(next[i]);
+        for (int i = common; i < routeSize; i++) {
+            if (!traced.get(route[i])) {
+                onRoute.clear(route[i]);
+                changed(route[i]);
+            }
+        }
+        for (int i = common; i < nextSize; i++) {
+            traced.clear(next[i]);
+            if (!onRoute.get(next[i])) {
+                onRoute.set(next[i]);
+                changed(next[i]);
+            }
+        }
+        if (routeSize > 0)
+            changed(route[routeSize - 1]);
+        if (nextSize > 0)
+            changed(next[nextSize - 1]);
+    }
+}
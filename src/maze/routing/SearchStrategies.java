@@ -0,0 +1,53 @@
+package maze.routing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+* Class that creates {@link SearchStrategy} instances from their names.
+* @author Marius Traian Hostinar
+*/
+public final class SearchStrategies {
+
+    private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+        DepthFirstSearch.NAME, BreadthFirstSearch.NAME, AStarSearch.NAME, BidirectionalSearch.NAME,
+        JumpPointSearch.NAME, HierarchicalSearch.NAME
+    ));
+
+    private SearchStrategies() {
+    }
+
+    /**
+    * Method that gets the names of all the available strategies, the default one first.
+    * @return Returns an unmodifiable {@link List} of strategy names.
+    */
+    public static List<String> getNames() {
+        return NAMES;
+    }
+
+    /**
+    * Method that creates a new strategy from its name.
+    * @param name The name of the strategy, as returned by {@link SearchStrategy#getName()}.
+    * @return Returns a new {@link SearchStrategy} ready to drive a search.
+    * @throws IllegalArgumentException Indicates that no strategy has the given name.
+    */
+    public static SearchStrategy create(String name) {
+        switch (name) {
+            case DepthFirstSearch.NAME:
+                return new DepthFirstSearch();
+            case BreadthFirstSearch.NAME:
+                return new BreadthFirstSearch();
+            case AStarSearch.NAME:
+                return new AStarSearch();
+            case BidirectionalSearch.NAME:
+                return new BidirectionalSearch();
+            case JumpPointSearch.NAME:
+                return new JumpPointSearch();
+            case HierarchicalSearch.NAME:
+                return new HierarchicalSearch();
+            default:
+                throw new IllegalArgumentException("Unknown search strategy: " + name);
+        }
+    }
+}
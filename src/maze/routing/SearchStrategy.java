@@ -0,0 +1,31 @@
+package maze.routing;
+
+/**
+* Interface for the policies a {@link RouteFinder} can use to search for a route.
+* A strategy advances a {@link SearchState} one step at a time, so every strategy can be animated step by step.
+* An instance drives a single search and must not be shared between {@link RouteFinder} instances.
+* @author Marius Traian Hostinar
+*/
+public interface SearchStrategy {
+
+    /**
+    * Method that gets the name the strategy is known by, as accepted by {@link SearchStrategies#create(String)}.
+    * @return Returns the name of the strategy.
+    */
+    String getName();
+
+    /**
+    * Method that prepares the strategy for a search, called once before the first step.
+    * The route of the state holds the source cell unless the state was restored from a saved search.
+    * @param state The {@link SearchState} to search from.
+    */
+    void start(SearchState state);
+
+    /**
+    * Method that performs one step of the search, updating the route and the visited cells of the state.
+    * @param state The {@link SearchState} passed to {@link #start(SearchState)}.
+    * @return Returns a boolean True if the route reaches the target and False if it does not yet.
+    * @throws NoRouteFoundException Indicates that no route has been found.
+    */
+    boolean step(SearchState state) throws NoRouteFoundException;
+}
@@ -0,0 +1,339 @@
+package maze.routing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import maze.Maze;
+import maze.MazeGrid;
+import maze.Tile;
+
+/**
+* Cache of the solutions of mazes, so a maze submitted again is not searched again. A solution is found by the content
+* hash of the {@link MazeGrid} (see {@link MazeGrid#getContentHash()}), the name of the {@link SearchStrategy} and
+* whether the dead ends were filled (see {@link DeadEndFilling}), so
+* equal mazes share it whatever file they were read from. The most recently used solutions are kept in memory up to
+* a number of bytes; with a directory, every solution is also written to a file named after its key and read back
+* when it is no longer in memory, so the cache outlives the process. Mazes without route are cached too.
+* Every method can be called from any thread.
+* @author Marius Traian Hostinar
+*/
+public final class SolutionCache {
+
+    static final int MAGIC = 0x534f4c56;
+    static final int VERSION = 2;
+
+    // Rough size of a cached solution besides its route, the entry, the key and the object headers.
+    private static final long ENTRY_BYTES = 160;
+
+    private final long capacity;
+    private final Path directory;
+    private final LinkedHashMap<String, Solution> memory = new LinkedHashMap<String, Solution>(16, 0.75f, true);
+    private long memoryBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+    * Constructor for a cache held in memory only.
+    * @param capacity The number of bytes the cached solutions may take in memory.
+    */
+    public SolutionCache(long capacity) {
+        this(capacity, null);
+    }
+
+    /**
+    * Constructor for a cache held in memory and in a directory.
+    * @param capacity The number of bytes the cached solutions may take in memory.
+    * @param directory The directory the solutions are written to, created if needed, or null to keep them in memory only.
+    */
+    public SolutionCache(long capacity, Path directory) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("The capacity must not be negative!");
+        this.capacity = capacity;
+        this.directory = directory;
+    }
+
+    /**
+    * Method that gets the solution of a {@link Maze} from the cache, or searches it and caches it.
+    * @param maze The {@link Maze} to solve.
+    * @param strategy The name of the {@link SearchStrategy}, see {@link SearchStrategies#create(String)}.
+    * @return Returns the {@link Solution} of the {@link Maze}, see {@link Solution#isSolvable()} for mazes without route.
+    * @throws IllegalArgumentException Indicates that no strategy has the given name.
+    */
+    public Solution solve(Maze maze, String strategy) {
+        return solve(maze, strategy, false);
+    }
+
+    /**
+    * Method that gets the solution of a {@link Maze} from the cache, or searches it and caches it.
+    * @param maze The {@link Maze} to solve.
+    * @param strategy The name of the {@link SearchStrategy}, see {@link SearchStrategies#create(String)}.
+    * @param fillDeadEnds Whether the dead ends are filled before searching, see {@link DeadEndFilling}.
+    * @return Returns the {@link Solution} of the {@link Maze}, see {@link Solution#isSolvable()} for mazes without route.
+    * @throws IllegalArgumentException Indicates that no strategy has the given name.
+    */
+    public Solution solve(Maze maze, String strategy, boolean fillDeadEnds) {
+        MazeGrid grid = maze.getGrid();
+        String key = keyOf(grid, strategy) + (fillDeadEnds ? "-filled" : "");
+        Solution solution = get(key, grid);
+        if (solution == null) {
+            misses.incrementAndGet();
+            solution = Solution.of(maze, SearchStrategies.create(strategy), fillDeadEnds);
+            put(key, solution);
+        }
+        return solution;
+    }
+
+    /**
+    * Method that gets the number of solutions found in memory.
+    * @return Returns the number of hits of the memory tier.
+    */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+    * Method that gets the number of solutions read from the directory, as they were no longer in memory.
+    * @return Returns the number of hits of the disk tier.
+    */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+    * Method that gets the number of mazes that had to be searched.
+    * @return Returns the number of misses of both tiers.
+    */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+    * Method that gets the number of bytes the solutions in memory take, roughly.
+    * @return Returns the size of the memory tier, at most its capacity.
+    */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    private static String keyOf(MazeGrid grid, String strategy) {
+        return String.format("%016x-%s", grid.getContentHash(), SearchStrategies.create(strategy).getName());
+    }
+
+    private Solution get(String key, MazeGrid grid) {
+        Solution solution;
+        synchronized (this) {
+            solution = memory.get(key);
+        }
+        // The route is checked against the grid too, so a hash collision is answered as a miss.
+        if (solution != null && solution.fits(grid)) {
+            hits.incrementAndGet();
+            return solution;
+        }
+        solution = read(key);
+        if (solution == null || !solution.fits(grid))
+            return null;
+        diskHits.incrementAndGet();
+        remember(key, solution);
+        return solution;
+    }
+
+    private void put(String key, Solution solution) {
+        remember(key, solution);
+        write(key, solution);
+    }
+
+    private synchronized void remember(String key, Solution solution) {
+        Solution previous = memory.put(key, solution);
+        if (previous != null)
+            memoryBytes -= previous.getBytes();
+        memoryBytes += solution.getBytes();
+        Iterator<Map.Entry<String, Solution>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > capacity && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().getBytes();
+            eldest.remove();
+        }
+    }
+
+    private Solution read(String key) {
+        if (directory == null)
+            return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(directory.resolve(key + ".solution"))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                return null;
+            int width = in.readInt();
+            int height = in.readInt();
+            boolean solvable = in.readBoolean();
+            long steps = in.readLong();
+            int visited = in.readInt();
+            int pruned = in.readInt();
+            int routeSize = in.readInt();
+            if (routeSize < 0 || routeSize > (long) width * height)
+                return null;
+            int[] route = new int[routeSize];
+            for (int i = 0; i < route.length; i++)
+                route[i] = in.readInt();
+            return new Solution(width, height, solvable, steps, visited, pruned, route);
+        } catch (IOException exception) {
+            // A missing or unreadable file is a miss, it is replaced once the maze is searched again.
+            return null;
+        }
+    }
+
+    private void write(String key, Solution solution) {
+        if (directory == null)
+            return;
+        Path file = null;
+        try {
+            Files.createDirectories(directory);
+            // Written aside and moved in place, so a solution being written is never read.
+            file = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(solution.width);
+                out.writeInt(solution.height);
+                out.writeBoolean(solution.solvable);
+                out.writeLong(solution.steps);
+                out.writeInt(solution.visited);
+                out.writeInt(solution.pruned);
+                out.writeInt(solution.route.length);
+                for (int cell : solution.route)
+                    out.writeInt(cell);
+            }
+            Files.move(file, directory.resolve(key + ".solution"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            // The disk tier is best effort, the solution is still cached in memory.
+            try {
+                if (file != null)
+                    Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+    * Immutable solution of a {@link Maze}: its route and how much of the {@link Maze} was searched to find it.
+    */
+    public static final class Solution {
+
+        private final int width;
+        private final int height;
+        private final boolean solvable;
+        private final long steps;
+        private final int visited;
+        private final int pruned;
+        private final int[] route;
+
+        private Solution(int width, int height, boolean solvable, long steps, int visited, int pruned, int[] route) {
+            this.width = width;
+            this.height = height;
+            this.solvable = solvable;
+            this.steps = steps;
+            this.visited = visited;
+            this.pruned = pruned;
+            this.route = route;
+        }
+
+        private static Solution of(Maze maze, SearchStrategy strategy, boolean fillDeadEnds) {
+            RouteFinder routeFinder = new RouteFinder(maze, strategy, fillDeadEnds);
+            boolean solvable = true;
+            try {
+                routeFinder.solve();
+            } catch (NoRouteFoundException exception) {
+                solvable = false;
+            }
+            SearchState state = routeFinder.getState();
+            int[] route = new int[solvable ? state.getRouteSize() : 0];
+            for (int i = 0; i < route.length; i++)
+                route[i] = state.getRouteCell(i);
+            MazeGrid grid = state.getGrid();
+            return new Solution(grid.getWidth(), grid.getHeight(), solvable, routeFinder.getSteps(), state.getVisited().cardinality(), routeFinder.getPrunedCount(), route);
+        }
+
+        /**
+        * Method that checks if the {@link Maze} has a route.
+        * @return Returns a boolean True if a route was found and a boolean False if there is none.
+        */
+        public boolean isSolvable() {
+            return solvable;
+        }
+
+        /**
+        * Method that gets the number of steps the search took.
+        * @return Returns the number of steps performed to solve the {@link Maze}.
+        */
+        public long getSteps() {
+            return steps;
+        }
+
+        /**
+        * Method that gets the number of tiles visited by the search.
+        * @return Returns the number of visited cells when the search ended.
+        */
+        public int getTilesVisited() {
+            return visited;
+        }
+
+        /**
+        * Method that gets the number of dead end cells filled before the search.
+        * @return Returns the number of cells pruned by {@link DeadEndFilling}, 0 if the dead ends were not filled.
+        */
+        public int getPrunedCount() {
+            return pruned;
+        }
+
+        /**
+        * Method that gets the number of cells on the route.
+        * @return Returns the length of the route, 0 if there is none.
+        */
+        public int getRouteSize() {
+            return route.length;
+        }
+
+        /**
+        * Method that gets a cell of the route.
+        * @param i The position of the cell on the route, from 0 for the entrance.
+        * @return Returns the index of the cell in the {@link MazeGrid}.
+        */
+        public int getRouteCell(int i) {
+            return route[i];
+        }
+
+        /**
+        * Method that checks a solution found by content hash belongs to a grid, so a hash collision or a stale or
+        * corrupt file of the directory is never answered: the route has to lead from the entrance to the exit of the
+        * grid through adjacent navigable cells.
+        * @param grid The {@link MazeGrid} being solved.
+        * @return Returns true if the solution can be the one of the grid.
+        */
+        private boolean fits(MazeGrid grid) {
+            if (grid.getWidth() != width || grid.getHeight() != height)
+                return false;
+            if (route.length == 0)
+                return !solvable;
+            if (!solvable || grid.getType(route[0]) != Tile.Type.ENTRANCE || grid.getType(route[route.length - 1]) != Tile.Type.EXIT)
+                return false;
+            for (int i = 0; i < route.length; i++) {
+                if (route[i] < 0 || route[i] >= grid.getSize() || !grid.isNavigable(route[i]))
+                    return false;
+                if (i > 0 && Math.abs(grid.getX(route[i]) - grid.getX(route[i - 1])) + Math.abs(grid.getY(route[i]) - grid.getY(route[i - 1])) != 1)
+                    return false;
+            }
+            return true;
+        }
+
+        private long getBytes() {
+            return ENTRY_BYTES + 4L * route.length;
+        }
+    }
+}
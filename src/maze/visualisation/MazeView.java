@@ -1,68 +1,350 @@
 package maze.visualisation;
 import maze.Maze;
-import maze.Tile;
-import javafx.scene.image.Image;
+import maze.MazeGrid;
+import javafx.geometry.Orientation;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
 import maze.routing.RouteFinder;
-import java.util.Stack;
+import maze.routing.SearchSnapshot;
+import maze.routing.SearchState;
+import java.util.BitSet;
 
 /**
 * Custom class that extends GridPane and creates the visual representation of the given maze. 
+* The maze is drawn through a viewport that only draws the cells it shows, scrolled with the scroll bars or by dragging
+* and zoomed with the mouse wheel. Zoomed out below a few pixels per cell, every pixel is coloured after the cell it
+* covers instead of drawing tile images, with the route drawn over them so it stays visible on the largest mazes.
 * @author Marius Traian Hostinar
 */
 public class MazeView extends GridPane{
 
+    /**
+    * Enumeration of the ways a {@link MazeView} draws the {@link Maze}.
+    */
+    public enum RenderMode {
+        /** The cells inside the viewport are drawn into a single {@link Canvas}. */
+        CANVAS,
+        /** Every cell is an {@link ImageView} node of the grid pane, only suited to small mazes. */
+        IMAGES
+    }
+
+    private static final int TILE_SIZE = 32;
+    // Below this many pixels per cell the tile images are no longer recognisable, so cells are drawn as pixels.
+    private static final double MIN_TILE_SIZE = 4;
+    private static final double MAX_CELL_SIZE = 64;
+    private static final double ZOOM_FACTOR = 1.25;
+    private static final int BACKGROUND = 0xff202020;
+
+    private RenderMode renderMode = RenderMode.CANVAS;
+    private final Canvas canvas = new Canvas(480, 360);
+    private final ScrollBar horizontal = new ScrollBar();
+    private final ScrollBar vertical = new ScrollBar();
+    private ImageView[] views;
+    private WritableImage pixels;
+    private int[] pixelRow;
+    private boolean pixelsChanged;
+    private boolean scrolling;
+    private double dragX;
+    private double dragY;
+
+    private MazeGrid grid;
+    // The mark of every drawn cell as in SearchSnapshot, bit 0 in low and bit 1 in high.
+    private BitSet low = new BitSet();
+    private BitSet high = new BitSet();
+    private SearchState renderedState;
+    private RenderMode renderedMode;
+
+    private final Viewport viewport = new Viewport(TILE_SIZE, MAX_CELL_SIZE, ZOOM_FACTOR);
+
+    /**
+    * Constructor for an empty view, that shows the next {@link Maze} whole if its cells can be at least a pixel.
+    */
+    public MazeView() {
+        vertical.setOrientation(Orientation.VERTICAL);
+        viewport.setSize(canvas.getWidth(), canvas.getHeight());
+        horizontal.valueProperty().addListener((observable, previous, value) -> scrollTo(value.doubleValue(), viewport.getOriginY()));
+        vertical.valueProperty().addListener((observable, previous, value) -> scrollTo(viewport.getOriginX(), value.doubleValue()));
+        canvas.setOnScroll(this::zoom);
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnMouseDragged(e -> {
+            if (grid == null || views != null)
+                return;
+            viewport.drag(e.getX() - dragX, e.getY() - dragY);
+            dragX = e.getX();
+            dragY = e.getY();
+            scrollTo(viewport.getOriginX(), viewport.getOriginY());
+        });
+    }
+
+    /**
+    * Method that gets how the {@link Maze} is drawn.
+    * @return Returns the {@link RenderMode} of the view, {@link RenderMode#CANVAS} unless changed.
+    */
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+    * Method that sets how the {@link Maze} is drawn, from the next call of {@link #renderMaze(Maze, RouteFinder)}.
+    * @param renderMode A valid {@link RenderMode}.
+    */
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+    }
+
+    /**
+    * Method that sets the size of the viewport the {@link Maze} is drawn in, the scroll bars excluded.
+    * @param width The width of the viewport in pixels.
+    * @param height The height of the viewport in pixels.
+    */
+    public void setViewportSize(double width, double height) {
+        viewport.setSize(width, height);
+        canvas.setWidth(viewport.getWidth());
+        canvas.setHeight(viewport.getHeight());
+        pixels = null;
+        scrollTo(viewport.getOriginX(), viewport.getOriginY());
+    }
+
+    /**
+    * Method that gets the zoom of the viewport.
+    * @return Returns the size of a cell in pixels, below 1 when a pixel covers several cells.
+    */
+    public double getCellSize() {
+        return viewport.getCellSize();
+    }
+
+    /**
+    * Method that zooms the viewport so it shows the whole {@link Maze}, with cells no bigger than the tile images.
+    */
+    public void zoomToFit() {
+        if (grid == null)
+            return;
+        viewport.zoomToFit();
+        scrollTo(0, 0);
+    }
+
     /**
     * Method in charge of building the visual part of the {@link Maze} using images.s 
+    * Rendering the same {@link RouteFinder} again only redraws the cells whose route or visited status changed since,
+    * changes made to the {@link Maze} itself are only drawn when another {@link RouteFinder} is rendered.
     * @param maze A given {@link Maze}.
     * @param rf A given {@link RouteFinder}.
     */
     public void renderMaze(Maze maze, RouteFinder rf) {
-        this.getChildren().clear();
-        int height = maze.getTiles().size();
-        int width = maze.getTiles().get(0).size();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Tile currentTile = maze.getTileAtLocation(new Maze.Coordinate(x, y));
-                String path;
-                if (currentTile.getType() == Tile.Type.WALL) {
-                    path = "/resources/images/wall.jpg";
-                }
-                switch (currentTile.getType()) {
-                case WALL:
-                    path = "/resources/images/wall.jpg";
-                    break;
-                case CORRIDOR:
-                    path = "/resources/images/corridor.jpg";
-                    break;
-                case ENTRANCE:
-                    path = "/resources/images/entrance.jpg";
-                    break;
-                case EXIT:
-                    path = "/resources/images/exit.jpg";
-                    break;
-                default:
-                    path = "";
+        MazeGrid grid = maze.getGrid();
+        // The cells are read by index, so drawing the maze does not create a Tile per cell.
+        SearchState state = rf.getState();
+        state.recordChanges();
+        int head = state.getRouteSize() == 0 ? -1 : state.peekRoute();
+        // Rendering the same search again only redraws the cells it changed, a step changes a few whatever the maze size.
+        if (state == renderedState && renderMode == renderedMode && state.drainChanges(cell -> drawCell(cell, markOf(state, head, cell)))) {
+            flush();
+            return;
+        }
+        state.drainChanges(cell -> { });
+        renderedState = state;
+
+        low = (BitSet) state.getVisited().clone();
+        high = new BitSet(grid.getSize());
+        for (int i = 0; i < state.getRouteSize(); i++) {
+            low.clear(state.getRouteCell(i));
+            high.set(state.getRouteCell(i));
+        }
+        if (head >= 0)
+            low.set(head);
+        show(grid);
+    }
+
+    /**
+    * Method that draws the progress of a search from a {@link SearchSnapshot}, so the search can run on another thread.
+    * A full snapshot redraws every cell, any other one only the cells it gives; the snapshots of a search have to be
+    * rendered in the order they were taken, starting with a full one.
+    * @param maze The {@link Maze} being searched.
+    * @param snapshot A {@link SearchSnapshot} of the search.
+    */
+    public void renderSnapshot(Maze maze, SearchSnapshot snapshot) {
+        MazeGrid grid = maze.getGrid();
+        // The live state is no longer what is drawn, the next renderMaze call draws it whole.
+        renderedState = null;
+        if (snapshot.isFull()) {
+            low = new BitSet(grid.getSize());
+            high = new BitSet(grid.getSize());
+            for (int cell = 0; cell < grid.getSize(); cell++)
+                setMark(cell, snapshot.getMark(cell));
+            show(grid);
+            return;
+        }
+        for (int i = 0; i < snapshot.getChangeCount(); i++)
+            drawCell(snapshot.getChangedCell(i), snapshot.getChangedMark(i));
+        flush();
+    }
+
+    private void show(MazeGrid grid) {
+        boolean resized = this.grid == null || this.grid.getWidth() != grid.getWidth() || this.grid.getHeight() != grid.getHeight();
+        this.grid = grid;
+        renderedMode = renderMode;
+        if (renderMode == RenderMode.IMAGES) {
+            this.getChildren().clear();
+            views = new ImageView[grid.getSize()];
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    int cell = grid.indexOf(x, y);
+                    views[cell] = new ImageView(imageOf(cell, getMark(cell)).getImage());
+                    this.add(views[cell], x, y);
                 }
-                if (((Stack) rf.getRoute()).peek().equals(currentTile))
-                    path = "/resources/images/oac.jpg";
-                else if (rf.getRoute().contains(currentTile))
-                    path = "/resources/images/flower.jpg";
-                else if (rf.isVisited(currentTile))
-                    path = "/resources/images/visited.jpg";
-                path = System.getProperty("user.dir") + path;
-
-                Image image = new Image("File:" + path);
-                ImageView iv = new ImageView();
-                iv.setFitHeight(40);
-                iv.setFitWidth(40);
-
-                this.add(new ImageView(image), x, y);
             }
+            return;
+        }
 
+        views = null;
+        viewport.setGridSize(grid.getWidth(), grid.getHeight());
+        if (!this.getChildren().contains(canvas)) {
+            this.getChildren().clear();
+            this.add(canvas, 0, 0);
+            this.add(vertical, 1, 0);
+            this.add(horizontal, 0, 1);
         }
+        if (resized)
+            zoomToFit();
+        else
+            scrollTo(viewport.getOriginX(), viewport.getOriginY());
+    }
+
+    private void zoom(ScrollEvent event) {
+        if (grid == null || views != null || event.getDeltaY() == 0)
+            return;
+        // The cell under the pointer stays under it.
+        viewport.zoom(event.getDeltaY() > 0, event.getX(), event.getY());
+        scrollTo(viewport.getOriginX(), viewport.getOriginY());
+        event.consume();
+    }
+
+    private void scrollTo(double x, double y) {
+        if (grid == null || views != null || scrolling)
+            return;
+        viewport.scrollTo(x, y);
+        // Setting the scroll bars calls back here, which is ignored while they are updated.
+        scrolling = true;
+        horizontal.setMax(viewport.getMaxOriginX());
+        horizontal.setVisibleAmount(Math.min(viewport.getVisibleColumns(), grid.getWidth()));
+        horizontal.setValue(viewport.getOriginX());
+        vertical.setMax(viewport.getMaxOriginY());
+        vertical.setVisibleAmount(Math.min(viewport.getVisibleRows(), grid.getHeight()));
+        vertical.setValue(viewport.getOriginY());
+        scrolling = false;
+        paint();
+    }
+
+    private void paint() {
+        int width = (int) canvas.getWidth();
+        int height = (int) canvas.getHeight();
+        if (viewport.getCellSize() >= MIN_TILE_SIZE) {
+            pixels = null;
+            GraphicsContext graphics = canvas.getGraphicsContext2D();
+            graphics.setFill(Color.rgb((BACKGROUND >> 16) & 0xff, (BACKGROUND >> 8) & 0xff, BACKGROUND & 0xff));
+            graphics.fillRect(0, 0, width, height);
+            for (int y = viewport.getFirstRow(); y < viewport.getEndRow(); y++)
+                for (int x = viewport.getFirstColumn(); x < viewport.getEndColumn(); x++)
+                    drawTile(grid.indexOf(x, y));
+            return;
+        }
+
+        // Every pixel takes the colour of the cell at its centre, then the route is drawn over the sampled cells.
+        if (pixels == null) {
+            pixels = new WritableImage(width, height);
+            pixelRow = new int[width];
+        }
+        for (int py = 0; py < height; py++) {
+            int y = viewport.rowAt(py);
+            for (int px = 0; px < width; px++) {
+                int x = viewport.columnAt(px);
+                pixelRow[px] = grid.contains(x, y) ? colorOf(grid.indexOf(x, y)) : BACKGROUND;
+            }
+            pixels.getPixelWriter().setPixels(0, py, width, 1, PixelFormat.getIntArgbInstance(), pixelRow, 0, width);
+        }
+        for (int cell = high.nextSetBit(0); cell >= 0; cell = high.nextSetBit(cell + 1))
+            drawPixels(cell);
+        pixelsChanged = true;
+        flush();
+    }
+
+    private void drawCell(int cell, int mark) {
+        setMark(cell, mark);
+        if (views != null)
+            views[cell].setImage(imageOf(cell, mark).getImage());
+        else if (pixels != null)
+            drawPixels(cell);
+        else if (viewport.isVisible(grid.getX(cell), grid.getY(cell)))
+            drawTile(cell);
+    }
+
+    private void drawTile(int cell) {
+        canvas.getGraphicsContext2D().drawImage(imageOf(cell, getMark(cell)).getImage(),
+            (grid.getX(cell) - viewport.getOriginX()) * viewport.getCellSize(), (grid.getY(cell) - viewport.getOriginY()) * viewport.getCellSize(),
+            viewport.getCellSize(), viewport.getCellSize());
+    }
+
+    private void drawPixels(int cell) {
+        int left = viewport.pixelLeft(grid.getX(cell));
+        int top = viewport.pixelTop(grid.getY(cell));
+        int right = viewport.pixelRight(grid.getX(cell));
+        int bottom = viewport.pixelBottom(grid.getY(cell));
+        int color = colorOf(cell);
+        for (int py = Math.max(0, top); py < bottom; py++)
+            for (int px = Math.max(0, left); px < right; px++)
+                pixels.getPixelWriter().setArgb(px, py, color);
+        pixelsChanged = true;
+    }
+
+    private void flush() {
+        if (pixels != null && pixelsChanged) {
+            canvas.getGraphicsContext2D().drawImage(pixels, 0, 0);
+            pixelsChanged = false;
+        }
+    }
+
+    private int getMark(int cell) {
+        return (high.get(cell) ? 2 : 0) | (low.get(cell) ? 1 : 0);
+    }
+
+    private void setMark(int cell, int mark) {
+        low.set(cell, (mark & 1) != 0);
+        high.set(cell, (mark & 2) != 0);
+    }
+
+    private int colorOf(int cell) {
+        return imageOf(cell, getMark(cell)).getColor();
+    }
+
+    private TileImage imageOf(int cell, int mark) {
+        switch (mark) {
+        case SearchSnapshot.HEAD:
+            return TileImage.HEAD;
+        case SearchSnapshot.ROUTE:
+            return TileImage.ROUTE;
+        case SearchSnapshot.VISITED:
+            return TileImage.VISITED;
+        default:
+            return TileImage.of(grid.getType(cell));
+        }
+    }
 
+    private static int markOf(SearchState state, int head, int cell) {
+        if (cell == head)
+            return SearchSnapshot.HEAD;
+        if (state.isOnRoute(cell))
+            return SearchSnapshot.ROUTE;
+        return state.isVisited(cell) ? SearchSnapshot.VISITED : SearchSnapshot.NONE;
     }
 
 }
@@ -0,0 +1,175 @@
+package maze.visualisation;
+
+import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import maze.Maze;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+import maze.routing.SearchSnapshot;
+
+/**
+* Class that solves a {@link Maze} on a worker thread and animates the search in a {@link MazeView}. On every frame an
+* {@link AnimationTimer} asks the {@link SearchWorker} for the next steps and draws the {@link SearchSnapshot} it published
+* for the previous ones, so the JavaFX Application Thread never runs the search and the worker draws nothing.
+* Every method has to be called on the JavaFX Application Thread. The {@link RouteFinder} must only be used elsewhere
+* while the animation is idle, see {@link #isIdle()}.
+* @author Marius Traian Hostinar
+*/
+public class SearchAnimation {
+
+    private final Maze maze;
+    private final RouteFinder routeFinder;
+    private final MazeView view;
+    private final AnimationTimer timer;
+    private SearchWorker worker;
+    private int stepsPerFrame = 1;
+    private boolean running;
+    private boolean cancelled;
+    private Consumer<SearchSnapshot> onProgress = snapshot -> { };
+    private Runnable onFinished = () -> { };
+    private Consumer<NoRouteFoundException> onFailed = exception -> { };
+
+    /**
+    * Constructor for a paused animation of a search.
+    * @param maze The {@link Maze} being searched.
+    * @param routeFinder The {@link RouteFinder} running the search, stepped by the worker while the animation runs.
+    * @param view The {@link MazeView} the search is drawn in.
+    */
+    public SearchAnimation(Maze maze, RouteFinder routeFinder, MazeView view) {
+        this.maze = maze;
+        this.routeFinder = routeFinder;
+        this.view = view;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frame();
+            }
+        };
+    }
+
+    /**
+    * Method that gets the search being animated.
+    * @return Returns the {@link RouteFinder} of the animation.
+    */
+    public RouteFinder getRouteFinder() {
+        return routeFinder;
+    }
+
+    /**
+    * Method that sets the number of steps the worker performs for every frame, from the next frame.
+    * @param stepsPerFrame A number of steps of at least 1.
+    */
+    public void setStepsPerFrame(int stepsPerFrame) {
+        if (stepsPerFrame < 1)
+            throw new IllegalArgumentException("At least one step has to be performed per frame!");
+        this.stepsPerFrame = stepsPerFrame;
+    }
+
+    /**
+    * Method that sets what is done with every snapshot once it is drawn, such as showing the number of steps.
+    * @param onProgress The consumer of the drawn {@link SearchSnapshot}s.
+    */
+    public void setOnProgress(Consumer<SearchSnapshot> onProgress) {
+        this.onProgress = onProgress;
+    }
+
+    /**
+    * Method that sets what is done once the search is finished and drawn, after the frame drawing it.
+    * @param onFinished The action run when the route is found.
+    */
+    public void setOnFinished(Runnable onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    /**
+    * Method that sets what is done once the search failed, after the frame drawing it, so it can show a dialog.
+    * @param onFailed The consumer of the exception thrown by the search.
+    */
+    public void setOnFailed(Consumer<NoRouteFoundException> onFailed) {
+        this.onFailed = onFailed;
+    }
+
+    /**
+    * Method that starts or resumes the animation. The first frame draws the whole search.
+    */
+    public void play() {
+        if (running || cancelled || routeFinder.isFinished())
+            return;
+        if (worker == null) {
+            worker = new SearchWorker(routeFinder);
+            worker.start();
+        }
+        running = true;
+        timer.start();
+    }
+
+    /**
+    * Method that pauses the animation once the steps being performed are drawn.
+    */
+    public void pause() {
+        running = false;
+    }
+
+    /**
+    * Method that stops the animation for good and lets the worker thread end. The steps being performed are not drawn,
+    * and the animation cannot be played again.
+    */
+    public void cancel() {
+        running = false;
+        cancelled = true;
+        timer.stop();
+        if (worker != null)
+            worker.stop();
+    }
+
+    /**
+    * Method that checks if the animation is running.
+    * @return Returns a boolean True if the animation runs or has not been paused yet and a boolean False if it has.
+    */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+    * Method that checks if the worker is done with the {@link RouteFinder}, which can then be used by the caller.
+    * @return Returns a boolean True if the animation is paused and every requested step has been drawn.
+    */
+    public boolean isIdle() {
+        return !running && !isPending();
+    }
+
+    private void frame() {
+        SearchWorker.Progress progress = worker.poll();
+        if (progress != null) {
+            boolean done = progress.isDone();
+            if (done)
+                running = false;
+            // The next steps are requested before drawing, so the worker performs them while this frame is drawn.
+            request();
+            view.renderSnapshot(maze, progress.getSnapshot());
+            onProgress.accept(progress.getSnapshot());
+            // Dialogs cannot be shown while a frame is being processed, so the last callbacks run after it.
+            NoRouteFoundException failure = progress.getFailure();
+            Runnable finished = onFinished;
+            Consumer<NoRouteFoundException> failed = onFailed;
+            if (failure != null)
+                Platform.runLater(() -> failed.accept(failure));
+            else if (done)
+                Platform.runLater(finished);
+        } else {
+            request();
+        }
+        if (!running && !isPending())
+            timer.stop();
+    }
+
+    private void request() {
+        if (running)
+            worker.request(stepsPerFrame);
+    }
+
+    private boolean isPending() {
+        return worker != null && worker.isPending();
+    }
+}
@@ -0,0 +1,144 @@
+package maze.visualisation;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+import maze.routing.SearchSnapshot;
+
+/**
+* Class that steps a {@link RouteFinder} on a thread of its own, so a {@link SearchAnimation} never runs the search on
+* the JavaFX Application Thread. Steps are requested one batch at a time; the worker performs them and publishes a
+* {@link SearchSnapshot} of the search, full for the first batch and of the changed cells for the others, which the
+* caller polls. A new batch can only be requested once the previous one is polled.
+* Every method but the worker's own loop has to be called from the same thread.
+* @author Marius Traian Hostinar
+*/
+public class SearchWorker {
+
+    private static final int STOP = -1;
+
+    private final RouteFinder routeFinder;
+    private final BlockingQueue<Integer> requests = new LinkedBlockingQueue<Integer>();
+    private final ConcurrentLinkedQueue<Progress> published = new ConcurrentLinkedQueue<Progress>();
+    private Thread thread;
+    private boolean pending;
+
+    /**
+    * Constructor for a worker that is not started yet.
+    * @param routeFinder The {@link RouteFinder} stepped by the worker, which must not be used elsewhere while a batch is pending.
+    */
+    public SearchWorker(RouteFinder routeFinder) {
+        this.routeFinder = routeFinder;
+    }
+
+    /**
+    * Method that starts the thread of the worker, as a daemon so it does not keep the application running.
+    */
+    public void start() {
+        thread = new Thread(this::work, "maze-solver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+    * Method that asks the worker for the next batch of steps, unless a batch is still pending.
+    * @param steps The number of steps of the batch, at least 1.
+    * @return Returns a boolean True if the batch was requested and a boolean False if one was already pending.
+    */
+    public boolean request(int steps) {
+        if (steps < 1)
+            throw new IllegalArgumentException("At least one step has to be requested!");
+        if (pending)
+            return false;
+        requests.add(steps);
+        pending = true;
+        return true;
+    }
+
+    /**
+    * Method that checks if a batch was requested and its progress not polled yet.
+    * @return Returns a boolean True while the worker may be using the {@link RouteFinder}.
+    */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+    * Method that takes the progress published for the pending batch, if the worker is done with it.
+    * @return Returns the {@link Progress} of the batch, or null if it is still being performed.
+    */
+    public Progress poll() {
+        Progress progress = published.poll();
+        if (progress != null)
+            pending = false;
+        return progress;
+    }
+
+    /**
+    * Method that lets the thread of the worker end once the batch being performed, if any, is done.
+    * Its progress is never published.
+    */
+    public void stop() {
+        if (thread != null)
+            requests.add(STOP);
+        thread = null;
+    }
+
+    private void work() {
+        boolean full = true;
+        try {
+            for (int steps = requests.take(); steps != STOP; steps = requests.take()) {
+                NoRouteFoundException failure = null;
+                try {
+                    routeFinder.solve(steps);
+                } catch (NoRouteFoundException exception) {
+                    failure = exception;
+                }
+                published.add(new Progress(routeFinder.snapshot(full), failure));
+                full = false;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    * Class holding what the worker publishes after performing a batch of steps.
+    */
+    public static final class Progress {
+
+        private final SearchSnapshot snapshot;
+        private final NoRouteFoundException failure;
+
+        Progress(SearchSnapshot snapshot, NoRouteFoundException failure) {
+            this.snapshot = snapshot;
+            this.failure = failure;
+        }
+
+        /**
+        * Method that gets the state of the search after the batch.
+        * @return Returns the {@link SearchSnapshot} taken once the steps were performed.
+        */
+        public SearchSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+        * Method that gets why the search failed during the batch.
+        * @return Returns the {@link NoRouteFoundException} thrown by the search, or null if it did not fail.
+        */
+        public NoRouteFoundException getFailure() {
+            return failure;
+        }
+
+        /**
+        * Method that checks if the search ended during the batch, found or failed.
+        * @return Returns a boolean True if no more steps can be performed.
+        */
+        public boolean isDone() {
+            return failure != null || snapshot.isFinished();
+        }
+    }
+}
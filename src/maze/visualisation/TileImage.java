@@ -0,0 +1,75 @@
+package maze.visualisation;
+
+import java.nio.file.Paths;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import maze.Tile;
+
+/**
+* Enumeration of the images a {@link MazeView} draws a cell with, one per {@link Tile.Type} followed by the search
+* states drawn over them. Every image is decoded from {@code resources/images} the first time it is drawn, then reused.
+* @author Marius Traian Hostinar
+*/
+enum TileImage {
+    CORRIDOR("corridor.jpg"),
+    ENTRANCE("entrance.jpg"),
+    EXIT("exit.jpg"),
+    WALL("wall.jpg"),
+    HEAD("oac.jpg"),
+    ROUTE("flower.jpg"),
+    VISITED("visited.jpg");
+
+    private static final TileImage[] TYPES = {CORRIDOR, ENTRANCE, EXIT, WALL};
+
+    private final String file;
+    private Image image;
+    private int color;
+
+    TileImage(String file) {
+        this.file = file;
+    }
+
+    /**
+    * Method that gets the image of a {@link Tile.Type}.
+    * @param type A valid {@link Tile.Type}.
+    * @return Returns the TileImage drawn for cells of the type that are not part of the search.
+    */
+    static TileImage of(Tile.Type type) {
+        return TYPES[type.ordinal()];
+    }
+
+    /**
+    * Method that gets the decoded image, decoding it on the first call. It must be called on the JavaFX Application Thread.
+    * @return Returns the shared {@link Image}.
+    */
+    Image getImage() {
+        if (image == null)
+            image = new Image(Paths.get(System.getProperty("user.dir"), "resources", "images", file).toUri().toString());
+        return image;
+    }
+
+    /**
+    * Method that gets the average colour of the image, drawn instead of the image when a cell is smaller than a few pixels.
+    * @return Returns the colour as an opaque ARGB value.
+    */
+    int getColor() {
+        if (color == 0) {
+            Image image = getImage();
+            PixelReader reader = image.getPixelReader();
+            int width = (int) image.getWidth();
+            int height = (int) image.getHeight();
+            long red = 0, green = 0, blue = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int argb = reader == null ? 0 : reader.getArgb(x, y);
+                    red += (argb >> 16) & 0xff;
+                    green += (argb >> 8) & 0xff;
+                    blue += argb & 0xff;
+                }
+            }
+            long pixels = Math.max(1, (long) width * height);
+            color = 0xff000000 | (int) (red / pixels) << 16 | (int) (green / pixels) << 8 | (int) (blue / pixels);
+        }
+        return color;
+    }
+}
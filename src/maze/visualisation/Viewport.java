@@ -0,0 +1,273 @@
+package maze.visualisation;
+
+/**
+* Class holding the part of a grid of cells a {@link MazeView} shows: the size of a cell in pixels and the cell
+* coordinates of the top left corner of the view, kept inside the grid as the view is scrolled and zoomed.
+* It draws nothing, the view draws the cells it gives.
+* @author Marius Traian Hostinar
+*/
+public class Viewport {
+
+    private final double maxFitSize;
+    private final double maxCellSize;
+    private final double zoomFactor;
+
+    private int columns;
+    private int rows;
+    private double width = 1;
+    private double height = 1;
+    private double cellSize;
+    private double originX;
+    private double originY;
+
+    /**
+    * Constructor for a viewport of one pixel over an empty grid.
+    * @param maxFitSize The largest size of a cell when the whole grid is fitted, and the smallest the view zooms out to.
+    * @param maxCellSize The largest size of a cell when zooming in.
+    * @param zoomFactor The factor the size of a cell is multiplied or divided by on every zoom step.
+    */
+    public Viewport(double maxFitSize, double maxCellSize, double zoomFactor) {
+        this.maxFitSize = maxFitSize;
+        this.maxCellSize = maxCellSize;
+        this.zoomFactor = zoomFactor;
+        this.cellSize = maxFitSize;
+    }
+
+    /**
+    * Method that sets the size of the grid shown, keeping the zoom and the origin as far as they fit.
+    * @param columns The width of the grid in cells.
+    * @param rows The height of the grid in cells.
+    */
+    public void setGridSize(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        scrollTo(originX, originY);
+    }
+
+    /**
+    * Method that sets the size of the view, rounded down to whole pixels and at least one.
+    * @param width The width of the view in pixels.
+    * @param height The height of the view in pixels.
+    */
+    public void setSize(double width, double height) {
+        this.width = Math.max(1, Math.floor(width));
+        this.height = Math.max(1, Math.floor(height));
+        scrollTo(originX, originY);
+    }
+
+    /**
+    * Method that gets the width of the view.
+    * @return Returns the width in pixels.
+    */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+    * Method that gets the height of the view.
+    * @return Returns the height in pixels.
+    */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+    * Method that gets the zoom of the view.
+    * @return Returns the size of a cell in pixels, below 1 when a pixel covers several cells.
+    */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+    * Method that gets the column at the left edge of the view.
+    * @return Returns the column, fractional when the view is scrolled part of a cell.
+    */
+    public double getOriginX() {
+        return originX;
+    }
+
+    /**
+    * Method that gets the row at the top edge of the view.
+    * @return Returns the row, fractional when the view is scrolled part of a cell.
+    */
+    public double getOriginY() {
+        return originY;
+    }
+
+    /**
+    * Method that gets how many columns the view spans.
+    * @return Returns the width of the view in cells, more than the grid has when the whole grid is shown.
+    */
+    public double getVisibleColumns() {
+        return width / cellSize;
+    }
+
+    /**
+    * Method that gets how many rows the view spans.
+    * @return Returns the height of the view in cells, more than the grid has when the whole grid is shown.
+    */
+    public double getVisibleRows() {
+        return height / cellSize;
+    }
+
+    /**
+    * Method that gets how far the view can be scrolled to the right.
+    * @return Returns the largest column the left edge can be at, 0 if the grid is no wider than the view.
+    */
+    public double getMaxOriginX() {
+        return Math.max(0, columns - getVisibleColumns());
+    }
+
+    /**
+    * Method that gets how far the view can be scrolled down.
+    * @return Returns the largest row the top edge can be at, 0 if the grid is no taller than the view.
+    */
+    public double getMaxOriginY() {
+        return Math.max(0, rows - getVisibleRows());
+    }
+
+    /**
+    * Method that scrolls the view, as close to a position as the grid allows.
+    * @param x The column the left edge of the view is wanted at.
+    * @param y The row the top edge of the view is wanted at.
+    */
+    public void scrollTo(double x, double y) {
+        originX = Math.max(0, Math.min(x, getMaxOriginX()));
+        originY = Math.max(0, Math.min(y, getMaxOriginY()));
+    }
+
+    /**
+    * Method that scrolls the view by the distance the pointer was dragged, so the grid follows the pointer.
+    * @param dx The horizontal distance dragged in pixels.
+    * @param dy The vertical distance dragged in pixels.
+    */
+    public void drag(double dx, double dy) {
+        scrollTo(originX - dx / cellSize, originY - dy / cellSize);
+    }
+
+    /**
+    * Method that zooms so the whole grid is shown from its top left corner, with cells no bigger than the fitted size.
+    */
+    public void zoomToFit() {
+        cellSize = Math.min(maxFitSize, fitSize());
+        scrollTo(0, 0);
+    }
+
+    /**
+    * Method that zooms one step in or out about a pixel, which keeps showing the same point of the grid. The view
+    * zooms out no further than the whole grid, nor than the fitted size, and in no further than the largest cell size.
+    * @param in Whether the cells get bigger.
+    * @param x The horizontal position of the pixel zoomed about.
+    * @param y The vertical position of the pixel zoomed about.
+    */
+    public void zoom(boolean in, double x, double y) {
+        double size = cellSize * (in ? zoomFactor : 1 / zoomFactor);
+        size = Math.max(Math.min(maxFitSize, fitSize()), Math.min(maxCellSize, size));
+        double column = originX + x / cellSize - x / size;
+        double row = originY + y / cellSize - y / size;
+        cellSize = size;
+        scrollTo(column, row);
+    }
+
+    /**
+    * Method that gets the first column of cells drawn, the one under the left edge of the view.
+    * @return Returns the first column partly or wholly shown.
+    */
+    public int getFirstColumn() {
+        return (int) originX;
+    }
+
+    /**
+    * Method that gets the first row of cells drawn, the one under the top edge of the view.
+    * @return Returns the first row partly or wholly shown.
+    */
+    public int getFirstRow() {
+        return (int) originY;
+    }
+
+    /**
+    * Method that gets the column after the last one drawn.
+    * @return Returns the end of the range of columns partly or wholly shown, at most the width of the grid.
+    */
+    public int getEndColumn() {
+        return (int) Math.min(columns, Math.ceil(originX + getVisibleColumns()));
+    }
+
+    /**
+    * Method that gets the row after the last one drawn.
+    * @return Returns the end of the range of rows partly or wholly shown, at most the height of the grid.
+    */
+    public int getEndRow() {
+        return (int) Math.min(rows, Math.ceil(originY + getVisibleRows()));
+    }
+
+    /**
+    * Method that checks if any part of a cell is shown.
+    * @param x The column of the cell.
+    * @param y The row of the cell.
+    * @return Returns a boolean True if the cell overlaps the view.
+    */
+    public boolean isVisible(int x, int y) {
+        return x + 1 > originX && y + 1 > originY && x < originX + getVisibleColumns() && y < originY + getVisibleRows();
+    }
+
+    /**
+    * Method that gets the column sampled for a pixel when cells are smaller than pixels, the one at its centre.
+    * @param px The horizontal position of the pixel.
+    * @return Returns the column under the centre of the pixel, possibly past the grid.
+    */
+    public int columnAt(int px) {
+        return (int) (originX + (px + 0.5) / cellSize);
+    }
+
+    /**
+    * Method that gets the row sampled for a pixel when cells are smaller than pixels, the one at its centre.
+    * @param py The vertical position of the pixel.
+    * @return Returns the row under the centre of the pixel, possibly past the grid.
+    */
+    public int rowAt(int py) {
+        return (int) (originY + (py + 0.5) / cellSize);
+    }
+
+    /**
+    * Method that gets the first pixel a column covers, the one its left edge falls in.
+    * @param x The column of a cell.
+    * @return Returns the horizontal position of the pixel, negative if the column starts left of the view.
+    */
+    public int pixelLeft(int x) {
+        return (int) ((x - originX) * cellSize);
+    }
+
+    /**
+    * Method that gets the first pixel a row covers, the one its top edge falls in.
+    * @param y The row of a cell.
+    * @return Returns the vertical position of the pixel, negative if the row starts above the view.
+    */
+    public int pixelTop(int y) {
+        return (int) ((y - originY) * cellSize);
+    }
+
+    /**
+    * Method that gets the pixel after the last one a column covers. A column covers at least the pixel its edge falls
+    * in, and every pixel its area reaches when cells are bigger than pixels.
+    * @param x The column of a cell.
+    * @return Returns the end of the range of pixels of the column, at most the width of the view.
+    */
+    public int pixelRight(int x) {
+        return (int) Math.min(width, Math.max(pixelLeft(x) + 1, (int) Math.ceil((x + 1 - originX) * cellSize)));
+    }
+
+    /**
+    * Method that gets the pixel after the last one a row covers, see {@link #pixelRight(int)}.
+    * @param y The row of a cell.
+    * @return Returns the end of the range of pixels of the row, at most the height of the view.
+    */
+    public int pixelBottom(int y) {
+        return (int) Math.min(height, Math.max(pixelTop(y) + 1, (int) Math.ceil((y + 1 - originY) * cellSize)));
+    }
+
+    private double fitSize() {
+        return Math.min(width / Math.max(1, columns), height / Math.max(1, rows));
+    }
+}
@@ -0,0 +1,82 @@
+package tests.dev.functional;
+
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.MazeRouter;
+import maze.routing.NoRouteFoundException;
+
+public class ExitDistancesTest {
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureExitRoutesAreShortestFromEveryLocation() throws NoRouteFoundException {
+        Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+        Maze.Coordinate exit = maze.getTileLocation(maze.getExit());
+        MazeRouter router = new MazeRouter(maze, "bfs");
+        for (int y = 0; y < maze.getGrid().getHeight(); y++) {
+            for (int x = 0; x < maze.getGrid().getWidth(); x++) {
+                Maze.Coordinate start = new Maze.Coordinate(x, y);
+                List<Maze.Coordinate> route = maze.routeToExit(start);
+                if (!maze.getTileAtLocation(start).isNavigable()) {
+                    assertTrue(route.isEmpty());
+                    assertEquals(-1, maze.distanceToExit(start));
+                    continue;
+                }
+                assertEquals(start.toString(), route.get(0).toString());
+                assertEquals(exit.toString(), route.get(route.size() - 1).toString());
+                for (int i = 1; i < route.size(); i++)
+                    assertEquals(1, Math.abs(route.get(i).getX() - route.get(i - 1).getX()) + Math.abs(route.get(i).getY() - route.get(i - 1).getY()));
+                // Searched from the exit, as routes to the exit are read from the distances.
+                assertEquals(router.route(exit, start).size(), route.size());
+                assertEquals(route.size() - 1, maze.distanceToExit(start));
+            }
+        }
+        assertEquals(19, maze.routeToExit(maze.getTileLocation(maze.getEntrance())).size());
+    }
+
+    @Test
+    public void ensureExitDistancesFollowChanges() {
+        Maze maze = TestMazes.fromText("e.#.x\n");
+        assertEquals(-1, maze.distanceToExit(new Maze.Coordinate(0, 0)));
+        assertTrue(maze.routeToExit(new Maze.Coordinate(0, 0)).isEmpty());
+        assertEquals(1, maze.distanceToExit(new Maze.Coordinate(3, 0)));
+        assertTrue(maze.routeToExit(new Maze.Coordinate(9, 0)).isEmpty());
+
+        // Setting a tile searches the distances again.
+        maze.getTiles().get(0).set(2, maze.getTiles().get(0).get(1));
+        assertEquals(4, maze.distanceToExit(new Maze.Coordinate(0, 0)));
+        assertEquals(5, maze.routeToExit(new Maze.Coordinate(0, 0)).size());
+    }
+
+    @Test
+    public void ensureSetInvalidatesBuiltDistances() {
+        Maze maze = TestMazes.fromText("e...x\n#.#.#\n#...#\n");
+        Maze.Coordinate entrance = maze.getTileLocation(maze.getEntrance());
+        Maze.Coordinate corridor = new Maze.Coordinate(2, 2);
+        Maze.Coordinate wall = new Maze.Coordinate(0, 1);
+        maze.buildIndexes();
+        assertEquals(4, maze.distanceToExit(entrance));
+
+        // Walling the top corridor leaves only the way round through the bottom.
+        Tile corridorTile = maze.getTileAtLocation(corridor);
+        maze.getTiles().get(corridor.getY()).set(corridor.getX(), maze.getTileAtLocation(wall));
+        assertEquals(8, maze.distanceToExit(entrance));
+        List<Maze.Coordinate> route = maze.routeToExit(entrance);
+        assertEquals(9, route.size());
+        assertEquals("(1, 1)", route.get(2).toString());
+
+        // Walling the way round too cuts the entrance off, and opening the corridor again restores the first route.
+        maze.getTiles().get(1).set(1, maze.getTileAtLocation(wall));
+        assertEquals(-1, maze.distanceToExit(entrance));
+        assertTrue(maze.routeToExit(entrance).isEmpty());
+        maze.getTiles().get(corridor.getY()).set(corridor.getX(), corridorTile);
+        assertEquals(4, maze.distanceToExit(entrance));
+        assertEquals(5, maze.routeToExit(entrance).size());
+    }
+}
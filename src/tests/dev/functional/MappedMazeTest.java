@@ -0,0 +1,99 @@
+package tests.dev.functional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.MultipleEntranceException;
+import maze.NoEntranceException;
+import maze.NoExitException;
+import maze.RaggedMazeException;
+import maze.Tile;
+import maze.routing.RouteFinder;
+
+public class MappedMazeTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureMappedMazeMatchesLoadedMaze() throws Exception {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            Path file = Paths.get(TEST_MAZES_DIR.toString(), name);
+            Maze loaded = Maze.fromTxt(file.toString());
+            Maze mapped = Maze.mapTxt(file);
+            assertEquals(loaded.toString(), mapped.toString());
+            assertEquals(loaded.getTileLocation(loaded.getEntrance()).toString(), mapped.getTileLocation(mapped.getEntrance()).toString());
+            assertEquals(loaded.getTileLocation(loaded.getExit()).toString(), mapped.getTileLocation(mapped.getExit()).toString());
+        }
+    }
+
+    @Test
+    public void ensureMappedMazeHandlesWindowsLineBreaks() throws Exception {
+        Maze maze = Maze.mapTxt(TestMazes.writeText("#e#\r\n#..\r\n#x#\r\n"));
+        assertSame(Tile.Type.ENTRANCE, maze.getTileAtLocation(new Maze.Coordinate(1, 2)).getType());
+        assertSame(Tile.Type.CORRIDOR, maze.getTileAtLocation(new Maze.Coordinate(2, 1)).getType());
+        assertSame(Tile.Type.EXIT, maze.getTileAtLocation(new Maze.Coordinate(1, 0)).getType());
+    }
+
+    @Test
+    public void ensureMappedMazeCanBeSolved() throws Exception {
+        Maze maze = Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze2.txt"));
+        RouteFinder routeFinder = new RouteFinder(maze);
+        routeFinder.solve();
+        assertTrue(routeFinder.isFinished());
+        assertSame(maze.getExit(), routeFinder.getRoute().get(routeFinder.getRoute().size() - 1));
+    }
+
+    @Test
+    public void ensureSettingMappedTileDoesNotWriteFile() throws Exception {
+        String text = "#e#\n#.#\n#x#";
+        Path file = TestMazes.writeText(text);
+        Maze maze = Maze.mapTxt(file);
+        Tile wall = maze.getTileAtLocation(new Maze.Coordinate(0, 0));
+        maze.getTiles().get(1).set(1, wall);
+        assertSame(Tile.Type.WALL, maze.getGrid().getType(maze.getGrid().indexOf(1, 1)));
+        assertEquals(text, new String(Files.readAllBytes(file), "US-ASCII"));
+    }
+
+    @Test
+    public void ensureMappedMazeIsValidated() throws Exception {
+        try {
+            Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "invalid", "ragged.txt"));
+            fail("Ragged maze was mapped");
+        } catch (RaggedMazeException e) {}
+        try {
+            Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "invalid", "noEntrance.txt"));
+            fail("Maze without an entrance was mapped");
+        } catch (NoEntranceException e) {}
+        try {
+            Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "invalid", "noExit.txt"));
+            fail("Maze without an exit was mapped");
+        } catch (NoExitException e) {}
+        try {
+            Maze.mapTxt(TestMazes.writeText("#e#\n#e#\n#x#"));
+            fail("Maze with two entrances was mapped");
+        } catch (MultipleEntranceException e) {}
+        try {
+            Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "invalid", "invalidChar.txt"));
+            fail("Maze with an invalid symbol was mapped");
+        } catch (InvalidMazeException e) {}
+    }
+
+    @Test
+    public void ensureEmptyFileHasNoEntrance() throws Exception {
+        try {
+            Maze.mapTxt(TestMazes.writeText(""));
+            fail("Empty maze was mapped");
+        } catch (NoEntranceException e) {}
+    }
+}
@@ -0,0 +1,104 @@
+package tests.dev.functional;
+
+import java.io.EOFException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.MultipleEntranceException;
+import maze.Tile;
+
+public class MazeBinaryTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Path temporaryFile() throws Exception {
+        Path file = Files.createTempFile("maze", ".maze");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    public Maze roundTrip(Maze maze) throws Exception {
+        Path file = temporaryFile();
+        maze.toBinary(file);
+        return Maze.fromBinary(file);
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureBinaryMazeMatchesTextMaze() throws Exception {
+        for (String name : new String[] {"maze1.txt", "maze2.txt"}) {
+            Maze maze = Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+            Maze loaded = roundTrip(maze);
+            assertEquals(maze.toString(), loaded.toString());
+            assertEquals(maze.getTileLocation(maze.getEntrance()).toString(), loaded.getTileLocation(loaded.getEntrance()).toString());
+            assertEquals(maze.getTileLocation(maze.getExit()).toString(), loaded.getTileLocation(loaded.getExit()).toString());
+        }
+    }
+
+    @Test
+    public void ensureBinaryMazeUsesTwoBitsPerCell() throws Exception {
+        Maze maze = Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze2.txt").toString());
+        Path file = temporaryFile();
+        maze.toBinary(file);
+        assertEquals(32 + (maze.getGrid().getSize() + 3) / 4, Files.size(file));
+    }
+
+    @Test
+    public void ensureMappedMazeCanBeConverted() throws Exception {
+        Maze mapped = Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze1.txt"));
+        assertEquals(mapped.toString(), roundTrip(mapped).toString());
+    }
+
+    @Test
+    public void ensureChangedTilesAreWritten() throws Exception {
+        Maze maze = Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze1.txt").toString());
+        maze.getTiles().get(1).set(1, maze.getTileAtLocation(new Maze.Coordinate(0, 0)));
+        assertSame(Tile.Type.WALL, roundTrip(maze).getTileAtLocation(new Maze.Coordinate(1, 1)).getType());
+    }
+
+    @Test
+    public void ensureOtherFilesAreRejected() throws Exception {
+        try {
+            Maze.fromBinary(Paths.get(TEST_MAZES_DIR.toString(), "maze1.txt"));
+            fail("Text maze was read as a binary maze");
+        } catch (InvalidMazeException e) {}
+    }
+
+    @Test
+    public void ensureTruncatedFileIsRejected() throws Exception {
+        Maze maze = Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze2.txt").toString());
+        Path file = temporaryFile();
+        maze.toBinary(file);
+        byte[] bytes = Files.readAllBytes(file);
+        for (int length : new int[] {0, 16, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            try {
+                Maze.fromBinary(file);
+                fail("Truncated binary maze was read");
+            } catch (EOFException e) {}
+        }
+    }
+
+    @Test
+    public void ensureBinaryMazeIsValidated() throws Exception {
+        Maze maze = Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze1.txt").toString());
+        maze.getTiles().get(1).set(1, maze.getEntrance());
+        Path file = temporaryFile();
+        maze.toBinary(file);
+        try {
+            Maze.fromBinary(file);
+            fail("Binary maze with two entrances was read");
+        } catch (MultipleEntranceException e) {}
+    }
+}
@@ -0,0 +1,196 @@
+package tests.dev.functional;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.routing.RouteFinder;
+
+public class MazeDriverTest {
+
+    private static final String SOLVABLE = "#e#\n#..\n#x#\n";
+    private static final String NO_ROUTE = "e#x\n";
+    private static final String RAGGED = "#e#\n#.\n#x#\n";
+
+    private Path directory;
+
+    // The exit status and output of one run of the driver.
+    private static class Run {
+        int status;
+        List<String> mazeLines = new ArrayList<String>();
+        List<String> summary = new ArrayList<String>();
+    }
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("mazes");
+        directory.toFile().deleteOnExit();
+    }
+
+    public Path write(String name, String text) throws IOException {
+        Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        file.toFile().deleteOnExit();
+        file.getParent().toFile().deleteOnExit();
+        return file;
+    }
+
+    // MazeDriver is in the default package and exits the JVM on failures, so it is run as its own process.
+    public Run run(String... args) throws Exception {
+        Path classes = Paths.get(Class.forName("MazeDriver").getProtectionDomain().getCodeSource().getLocation().toURI());
+        List<String> command = new ArrayList<String>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classes.toString());
+        command.add("MazeDriver");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        Run run = new Run();
+        run.status = process.waitFor();
+        for (String line : output.split("\n")) {
+            if (line.contains("\t"))
+                run.mazeLines.add(line);
+            else if (!line.isEmpty())
+                run.summary.add(line);
+        }
+        // The mazes are solved concurrently, so their lines come in any order.
+        Collections.sort(run.mazeLines);
+        return run;
+    }
+
+    public List<String> paths(Run run) {
+        List<String> paths = new ArrayList<String>();
+        for (String line : run.mazeLines)
+            paths.add(line.split("\t")[0]);
+        return paths;
+    }
+
+    public Object invokeStatic(String name, String glob) throws Exception {
+        Method method = Class.forName("MazeDriver").getDeclaredMethod(name, String.class);
+        method.setAccessible(true);
+        return method.invoke(null, glob);
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureDirectorySolvesItsMazes() throws Exception {
+        Path solvable = write("solvable.txt", SOLVABLE);
+        Path unsolvable = write("unsolvable.txt", NO_ROUTE);
+        write("notes.md", "not a maze");
+        write("sub/nested.txt", SOLVABLE);
+        Run run = run(directory.toString());
+        assertEquals(0, run.status);
+        assertEquals(Arrays.asList(solvable.toString(), unsolvable.toString()), paths(run));
+    }
+
+    @Test
+    public void ensureSolvedLineIsTabSeparated() throws Exception {
+        Path maze = write("solvable.txt", SOLVABLE);
+        RouteFinder routeFinder = new RouteFinder(TestMazes.fromText(SOLVABLE));
+        routeFinder.solve();
+        Run run = run(maze.toString());
+        assertEquals(1, run.mazeLines.size());
+        String[] fields = run.mazeLines.get(0).split("\t");
+        assertEquals(6, fields.length);
+        assertEquals(maze.toString(), fields[0]);
+        assertEquals("SOLVED", fields[1]);
+        assertEquals(Integer.toString(routeFinder.getRoute().size()), fields[2]);
+        assertEquals(Integer.toString(routeFinder.getState().getVisited().cardinality()), fields[3]);
+        assertTrue(fields[4], fields[4].matches("\\d+\\.\\d{3}"));
+        assertTrue(fields[5], fields[5].matches("\\d+\\.\\d{3}"));
+    }
+
+    @Test
+    public void ensureFailedLinesGiveTheReason() throws Exception {
+        Path unsolvable = write("a.txt", NO_ROUTE);
+        Path ragged = write("b.txt", RAGGED);
+        Run run = run(unsolvable.toString(), ragged.toString());
+        String[] noRoute = run.mazeLines.get(0).split("\t");
+        assertEquals(6, noRoute.length);
+        assertEquals("NO_ROUTE", noRoute[1]);
+        assertEquals("0", noRoute[2]);
+        String[] invalid = run.mazeLines.get(1).split("\t");
+        assertEquals(7, invalid.length);
+        assertEquals("INVALID", invalid[1]);
+        assertEquals("-1", invalid[2]);
+        assertEquals("-1", invalid[3]);
+        assertTrue(invalid[6], invalid[6].startsWith("maze.RaggedMazeException"));
+    }
+
+    @Test
+    public void ensureSummaryCountsOutcomes() throws Exception {
+        write("a.txt", SOLVABLE);
+        write("b.txt", SOLVABLE);
+        write("c.txt", NO_ROUTE);
+        write("d.txt", RAGGED);
+        Run run = run("--threads", "2", directory.toString());
+        assertEquals(4, run.mazeLines.size());
+        assertEquals(3, run.summary.size());
+        assertTrue(run.summary.get(0), run.summary.get(0).startsWith("4 mazes in "));
+        assertTrue(run.summary.get(0), run.summary.get(0).contains(" on 2 threads "));
+        assertTrue(run.summary.get(0), run.summary.get(0).contains(": 2 solved, 1 without route, 1 failed;"));
+        // Both solvable mazes have the same content, so the second is answered from the cache.
+        assertEquals("solution cache: 1 hits, 0 disk hits, 2 misses", run.summary.get(2));
+    }
+
+    @Test
+    public void ensureInvalidMazeExitsWithFailure() throws Exception {
+        write("solvable.txt", SOLVABLE);
+        write("unsolvable.txt", NO_ROUTE);
+        assertEquals(0, run(directory.toString()).status);
+        write("ragged.txt", RAGGED);
+        assertEquals(1, run(directory.toString()).status);
+        assertEquals(1, run(directory.resolve("missing.txt").toString()).status);
+    }
+
+    @Test
+    public void ensureGlobMatchesFileNames() throws Exception {
+        Path a = write("a.txt", SOLVABLE);
+        Path b = write("b.txt", SOLVABLE);
+        write("c.maze.bak", SOLVABLE);
+        write("sub/d.txt", SOLVABLE);
+        Run run = run(directory + File.separator + "*.txt");
+        assertEquals(0, run.status);
+        assertEquals(Arrays.asList(a.toString(), b.toString()), paths(run));
+    }
+
+    @Test
+    public void ensureDoubleStarGlobMatchesEveryLevel() throws Exception {
+        Path a = write("a.txt", SOLVABLE);
+        Path d = write("sub/d.txt", SOLVABLE);
+        Path e = write("sub/deeper/e.txt", SOLVABLE);
+        write("sub/deeper/f.md", SOLVABLE);
+        Run run = run(directory + File.separator + "**.txt");
+        assertEquals(Arrays.asList(a.toString(), d.toString(), e.toString()), paths(run));
+        run = run(directory + File.separator + "sub" + File.separator + "*" + File.separator + "*.txt");
+        assertEquals(Arrays.asList(e.toString()), paths(run));
+    }
+
+    @Test
+    public void ensureGlobIsWalkedOnlyAsDeepAsItsPattern() throws Exception {
+        assertEquals(1, invokeStatic("globDepth", "mazes/*.txt"));
+        assertEquals(2, invokeStatic("globDepth", "mazes/*/*.txt"));
+        assertEquals(2, invokeStatic("globDepth", "mazes/big/*/maze?.txt"));
+        assertEquals(Integer.MAX_VALUE, invokeStatic("globDepth", "mazes/**.txt"));
+        assertEquals(Integer.MAX_VALUE, invokeStatic("globDepth", "*/**/*.txt"));
+        assertEquals(Paths.get("mazes/big/"), invokeStatic("globRoot", "mazes/big/*/maze?.txt"));
+        assertEquals(Paths.get(""), invokeStatic("globRoot", "*.txt"));
+    }
+}
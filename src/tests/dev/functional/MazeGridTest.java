@@ -0,0 +1,177 @@
+package tests.dev.functional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.MazeGrid;
+import maze.RaggedMazeException;
+import maze.Tile;
+
+public class MazeGridTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupForMaze(String name) {
+        Maze rtn = null;
+        Path filePath = Paths.get(TEST_MAZES_DIR.toString(), name);
+        try {
+            rtn = Maze.fromTxt(filePath.toString());
+        } catch (Exception e) { fail(e.getClass().getName() + ": " + e.getMessage()); }
+        return rtn;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureGridDimensionsMatchTiles() {
+        Maze maze = setupForMaze("maze2.txt");
+        MazeGrid grid = maze.getGrid();
+        assertEquals(maze.getTiles().size(), grid.getHeight());
+        assertEquals(maze.getTiles().get(0).size(), grid.getWidth());
+        assertEquals(grid.getWidth() * grid.getHeight(), grid.getSize());
+    }
+
+    @Test
+    public void ensureGridMatchesTiles() {
+        Maze maze = setupForMaze("maze2.txt");
+        MazeGrid grid = maze.getGrid();
+        List<List<Tile>> tiles = maze.getTiles();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                Tile tile = tiles.get(y).get(x);
+                int index = grid.indexOf(x, y);
+                assertSame(tile.getType(), grid.getType(index));
+                assertEquals(tile.isNavigable(), grid.isNavigable(index));
+                assertEquals(tile.toString(), String.valueOf(grid.getSymbol(index)));
+                assertEquals(x, grid.getX(index));
+                assertEquals(y, grid.getY(index));
+            }
+        }
+    }
+
+    @Test
+    public void ensureLocatedTilesAreCreatedOnce() {
+        Maze maze = setupForMaze("maze1.txt");
+        Tile tile = maze.getTileAtLocation(new Maze.Coordinate(1, 1));
+        assertSame(tile, maze.getTileAtLocation(new Maze.Coordinate(1, 1)));
+        assertSame(maze.getEntrance(), maze.getTileAtLocation(maze.getTileLocation(maze.getEntrance())));
+    }
+
+    @Test
+    public void ensureTraversalSharesOneTilePerType() {
+        Maze maze = setupForMaze("maze2.txt");
+        Tile[] shared = new Tile[Tile.Type.values().length];
+        for (List<Tile> row : maze.getTiles()) {
+            for (Tile tile : row) {
+                int type = tile.getType().ordinal();
+                if (shared[type] == null)
+                    shared[type] = tile;
+                assertSame(shared[type], tile);
+            }
+        }
+        assertNull(maze.getTileLocation(maze.getTiles().get(1).get(1)));
+    }
+
+    @Test
+    public void ensureSettingSharedTileKeepsLocatedTilesConsistent() {
+        Maze maze = setupForMaze("maze1.txt");
+        Tile corridor = maze.getTileAtLocation(new Maze.Coordinate(1, 1));
+        Tile wall = maze.getTiles().get(0).get(0);
+        maze.getTiles().get(1).set(1, wall);
+        assertNull(maze.getTileLocation(corridor));
+        assertNull(maze.getTileLocation(wall));
+        assertSame(Tile.Type.WALL, maze.getTileAtLocation(new Maze.Coordinate(1, 1)).getType());
+    }
+
+    @Test
+    public void ensureAdjacentIndexStopsAtBorders() {
+        Maze maze = setupForMaze("maze1.txt");
+        MazeGrid grid = maze.getGrid();
+        int bottomLeft = grid.indexOf(0, 0);
+        int topRight = grid.indexOf(grid.getWidth() - 1, grid.getHeight() - 1);
+        assertEquals(-1, grid.getAdjacentIndex(bottomLeft, Maze.Direction.SOUTH));
+        assertEquals(-1, grid.getAdjacentIndex(bottomLeft, Maze.Direction.WEST));
+        assertEquals(-1, grid.getAdjacentIndex(topRight, Maze.Direction.NORTH));
+        assertEquals(-1, grid.getAdjacentIndex(topRight, Maze.Direction.EAST));
+        assertEquals(grid.indexOf(0, 1), grid.getAdjacentIndex(bottomLeft, Maze.Direction.NORTH));
+        assertEquals(grid.indexOf(1, 0), grid.getAdjacentIndex(bottomLeft, Maze.Direction.EAST));
+    }
+
+    @Test
+    public void ensureSettingTileWritesThroughToGrid() {
+        Maze maze = setupForMaze("maze1.txt");
+        MazeGrid grid = maze.getGrid();
+        Tile wall = maze.getTileAtLocation(new Maze.Coordinate(0, 0));
+        assertSame(Tile.Type.WALL, wall.getType());
+        maze.getTiles().get(1).set(1, wall);
+        assertSame(Tile.Type.WALL, grid.getType(grid.indexOf(1, 1)));
+        assertFalse(grid.isNavigable(grid.indexOf(1, 1)));
+    }
+
+    @Test
+    public void ensureTileLocationOfTileFromAnotherMazeIsNull() {
+        Maze maze = setupForMaze("maze1.txt");
+        Maze other = setupForMaze("maze1.txt");
+        Tile tile = other.getTileAtLocation(new Maze.Coordinate(1, 1));
+        assertNull(maze.getTileLocation(tile));
+        assertNull(maze.getAdjacentTile(tile, Maze.Direction.NORTH));
+    }
+
+    @Test
+    public void ensureTileLocationFollowsSetTile() {
+        Maze maze = setupForMaze("maze1.txt");
+        Tile tile = maze.getTileAtLocation(new Maze.Coordinate(1, 1));
+        Tile replaced = maze.getTileAtLocation(new Maze.Coordinate(2, 3));
+        maze.getTiles().get(3).set(2, tile);
+        Maze.Coordinate location = maze.getTileLocation(tile);
+        assertEquals(2, location.getX());
+        assertEquals(3, location.getY());
+        assertNull(maze.getTileLocation(replaced));
+    }
+
+    @Test
+    public void ensureWriteToMatchesToString() throws IOException {
+        Maze maze = setupForMaze("maze2.txt");
+        StringWriter out = new StringWriter();
+        maze.writeTo(out);
+        assertEquals(maze.toString(), out.toString());
+    }
+
+    @Test
+    public void ensureToStringLayout() throws IOException {
+        Maze maze = TestMazes.fromText("#x#\ne.#\n");
+        assertEquals("1    # x # \n0    e . # \n\n     0 1 2 ", maze.toString());
+        assertTrue(maze.getGrid().getTextLength() >= maze.toString().length());
+    }
+
+    @Test
+    public void ensureStreamedMazeMatchesLoadedMaze() throws Exception {
+        Path file = Paths.get(TEST_MAZES_DIR.toString(), "maze2.txt");
+        Maze loaded = setupForMaze("maze2.txt");
+        Maze streamed;
+        try (InputStream in = Files.newInputStream(file)) {
+            streamed = Maze.fromTxt(in);
+        }
+        assertEquals(loaded.toString(), streamed.toString());
+        assertEquals(loaded.getTileLocation(loaded.getEntrance()).toString(), streamed.getTileLocation(streamed.getEntrance()).toString());
+        assertEquals(loaded.getTileLocation(loaded.getExit()).toString(), streamed.getTileLocation(streamed.getExit()).toString());
+    }
+
+    @Test(expected = RaggedMazeException.class)
+    public void ensureStreamedMazeIsValidated() throws Exception {
+        Maze.fromTxt(new ByteArrayInputStream("#e#\n#.\n#x#\n".getBytes("US-ASCII")));
+    }
+}
@@ -0,0 +1,122 @@
+package tests.dev.functional;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.InvalidMazeException;
+import maze.Maze;
+import maze.MazeGrid;
+import maze.MultipleEntranceException;
+import maze.NoEntranceException;
+import maze.RaggedMazeException;
+
+public class MazeParserTest {
+
+    private static final String MAZE = "#e#\n#..\n#x#\n";
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze parse(String text) throws Exception {
+        return Maze.fromTxt(TestMazes.writeText(text).toString());
+    }
+
+    public void assertThrowsExactly(Class<? extends InvalidMazeException> expected, String text) {
+        Exception exception = assertThrows(InvalidMazeException.class, () -> parse(text));
+        assertEquals(text, expected, exception.getClass());
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureEveryLineBreakReadsTheSame() throws Exception {
+        String expected = parse(MAZE).toString();
+        assertEquals(expected, parse(MAZE.replace("\n", "\r")).toString());
+        assertEquals(expected, parse(MAZE.replace("\n", "\r\n")).toString());
+        assertEquals(expected, parse("#e#\r\n#..\r#x#\n").toString());
+    }
+
+    @Test
+    public void ensureLastLineNeedsNoLineBreak() throws Exception {
+        String expected = parse(MAZE).toString();
+        assertEquals(expected, parse("#e#\n#..\n#x#").toString());
+        assertEquals(expected, parse("#e#\r\n#..\r\n#x#").toString());
+    }
+
+    @Test
+    public void ensureEmptyLineIsRagged() {
+        assertThrowsExactly(RaggedMazeException.class, "#e#\n\n#x#\n");
+        assertThrowsExactly(RaggedMazeException.class, "#e#\n#x#\n\n");
+    }
+
+    @Test
+    public void ensureRowsAreNumberedFromTheBottom() throws Exception {
+        Maze maze = parse("#x#\ne.#\n");
+        assertEquals("(1, 1)", maze.getTileLocation(maze.getExit()).toString());
+        assertEquals("(0, 0)", maze.getTileLocation(maze.getEntrance()).toString());
+        MazeGrid grid = maze.getGrid();
+        assertEquals('.', grid.getSymbol(grid.indexOf(1, 0)));
+        assertEquals('#', grid.getSymbol(grid.indexOf(2, 0)));
+        assertEquals('#', grid.getSymbol(grid.indexOf(0, 1)));
+    }
+
+    @Test
+    public void ensureFirstErrorOfLineWins() {
+        // A ragged line is reported before an error inside it.
+        assertThrowsExactly(RaggedMazeException.class, "e.x\n#z\n");
+        assertThrowsExactly(RaggedMazeException.class, "e.x\n#e\n");
+        // Inside a line, the first error is reported.
+        assertThrowsExactly(InvalidMazeException.class, "e.x\n#ze\n");
+        assertThrowsExactly(MultipleEntranceException.class, "e.x\n#ez\n");
+        // An earlier line is reported before a later one, even on the last line without a line break.
+        assertThrowsExactly(InvalidMazeException.class, "e.z\n##\n");
+        assertThrowsExactly(InvalidMazeException.class, "e.x\n#z#");
+        // A line error is reported before a missing entrance.
+        assertThrowsExactly(InvalidMazeException.class, "..x\n#z#\n");
+        assertThrowsExactly(NoEntranceException.class, "..x\n###\n");
+    }
+
+    @Test
+    public void ensureLinesCrossingChunksAreRead() throws Exception {
+        // 999 wide lines cross the 64 KiB chunk boundaries anywhere.
+        int width = 999;
+        int height = 200;
+        char[][] rows = new char[height][width];
+        Random random = new Random(6);
+        StringBuilder text = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                rows[y][x] = random.nextBoolean() ? '#' : '.';
+            if (y == 0)
+                rows[y][0] = 'e';
+            if (y == height - 1)
+                rows[y][width - 1] = 'x';
+            text.append(rows[y]).append('\n');
+        }
+        MazeGrid grid = parse(text.toString()).getGrid();
+        assertEquals(width, grid.getWidth());
+        assertEquals(height, grid.getHeight());
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                assertEquals(rows[height - 1 - y][x], grid.getSymbol(grid.indexOf(x, y)));
+    }
+
+    @Test
+    public void ensureLineBreakSplitByChunksIsOneLineBreak() throws Exception {
+        // The first "\r" is the last byte of the first chunk, its "\n" the first byte of the next one.
+        int width = (1 << 16) - 1;
+        StringBuilder text = new StringBuilder();
+        for (int x = 0; x < width; x++)
+            text.append(x == 0 ? 'e' : '.');
+        text.append("\r\n");
+        for (int x = 0; x < width; x++)
+            text.append(x == width - 1 ? 'x' : '#');
+        text.append("\r\n");
+        Maze maze = parse(text.toString());
+        assertEquals(width, maze.getGrid().getWidth());
+        assertEquals(2, maze.getGrid().getHeight());
+        assertEquals("(0, 1)", maze.getTileLocation(maze.getEntrance()).toString());
+        assertEquals("(" + (width - 1) + ", 0)", maze.getTileLocation(maze.getExit()).toString());
+    }
+}
@@ -0,0 +1,133 @@
+package tests.dev.functional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Maze.Coordinate;
+import maze.routing.MazeRouter;
+import maze.routing.MazeRouter.Query;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+
+public class MazeRouterTest {
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    private void ensureValidRoute(Maze maze, Coordinate from, Coordinate to, List<Coordinate> route) {
+        assertEquals(from.toString(), route.get(0).toString());
+        assertEquals(to.toString(), route.get(route.size() - 1).toString());
+        for (int i = 1; i < route.size(); i++) {
+            Coordinate a = route.get(i - 1);
+            Coordinate b = route.get(i);
+            assertTrue(maze.getTileAtLocation(b).isNavigable());
+            assertEquals(1, Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY()));
+        }
+    }
+
+    private List<Coordinate> navigableLocations(Maze maze) {
+        List<Coordinate> locations = new ArrayList<Coordinate>();
+        for (int y = 0; y < maze.getGrid().getHeight(); y++)
+            for (int x = 0; x < maze.getGrid().getWidth(); x++)
+                if (maze.getTileAtLocation(new Coordinate(x, y)).isNavigable())
+                    locations.add(new Coordinate(x, y));
+        return locations;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureRouteFromEntranceToExitMatchesRouteFinder() throws NoRouteFoundException {
+        Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+        RouteFinder routeFinder = new RouteFinder(maze, SearchStrategies.create("bfs"));
+        routeFinder.solve();
+        Coordinate entrance = maze.getTileLocation(maze.getEntrance());
+        Coordinate exit = maze.getTileLocation(maze.getExit());
+        List<Coordinate> route = new MazeRouter(maze).route(entrance, exit);
+        ensureValidRoute(maze, entrance, exit, route);
+        assertEquals(routeFinder.getRoute().size(), route.size());
+    }
+
+    @Test
+    public void ensureRoutesLinkAnyLocations() throws NoRouteFoundException {
+        Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+        MazeRouter router = new MazeRouter(maze, "astar");
+        List<Coordinate> locations = navigableLocations(maze);
+        for (Coordinate from : locations) {
+            for (Coordinate to : locations) {
+                List<Coordinate> route = router.route(from, to);
+                ensureValidRoute(maze, from, to, route);
+                // Routes are shortest both ways.
+                assertEquals(route.size(), router.route(to, from).size());
+            }
+        }
+        assertEquals(1, router.route(locations.get(0), locations.get(0)).size());
+    }
+
+    @Test
+    public void ensureReusedSearchesMatchNewOnes() throws NoRouteFoundException {
+        Maze maze = TestMazes.open(40, 30, 0.25, 3);
+        List<Coordinate> locations = navigableLocations(maze);
+        for (String name : SearchStrategies.getNames()) {
+            MazeRouter router = new MazeRouter(maze, name);
+            Random random = new Random(8);
+            for (int i = 0; i < 50; i++) {
+                Coordinate from = locations.get(random.nextInt(locations.size()));
+                Coordinate to = locations.get(random.nextInt(locations.size()));
+                if (maze.componentOf(from) != maze.componentOf(to))
+                    continue;
+                assertEquals(name, new MazeRouter(maze, name).route(from, to).toString(), router.route(from, to).toString());
+            }
+        }
+    }
+
+    @Test
+    public void ensureInvalidLocationsAreRejected() throws NoRouteFoundException {
+        Maze maze = TestMazes.fromText("e.#..\n..#.x\n");
+        MazeRouter router = new MazeRouter(maze);
+        assertThrows(IllegalArgumentException.class, () -> router.route(new Coordinate(2, 0), new Coordinate(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> router.route(new Coordinate(0, 0), new Coordinate(5, 0)));
+        assertThrows(NoRouteFoundException.class, () -> router.route(new Coordinate(0, 1), new Coordinate(4, 0)));
+        assertEquals(3, router.route(new Coordinate(3, 1), new Coordinate(4, 0)).size());
+    }
+
+    @Test
+    public void ensureBatchMatchesSingleQueries() throws NoRouteFoundException {
+        Maze maze = TestMazes.open(70, 50, 0.25, 9);
+        MazeRouter router = new MazeRouter(maze);
+        List<Coordinate> locations = navigableLocations(maze);
+        Random random = new Random(4);
+        List<Query> queries = new ArrayList<Query>();
+        for (int i = 0; i < 500; i++)
+            queries.add(new Query(locations.get(random.nextInt(locations.size())), locations.get(random.nextInt(locations.size()))));
+        List<List<Coordinate>> routes = router.routeAll(queries);
+        assertEquals(queries.size(), routes.size());
+        int unreachable = 0;
+        for (int i = 0; i < queries.size(); i++) {
+            Query query = queries.get(i);
+            List<Coordinate> route = routes.get(i);
+            if (maze.componentOf(query.getFrom()) != maze.componentOf(query.getTo())) {
+                assertTrue(route.isEmpty());
+                unreachable++;
+                continue;
+            }
+            ensureValidRoute(maze, query.getFrom(), query.getTo(), route);
+            assertEquals(router.route(query.getFrom(), query.getTo()).toString(), route.toString());
+        }
+        assertTrue(unreachable < queries.size());
+    }
+
+    @Test
+    public void ensureBatchWithInvalidLocationIsRejected() {
+        Maze maze = TestMazes.fromText("e.#..\n..#.x\n");
+        List<Query> queries = new ArrayList<Query>();
+        queries.add(new Query(new Coordinate(0, 0), new Coordinate(1, 1)));
+        queries.add(new Query(new Coordinate(0, 0), new Coordinate(2, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new MazeRouter(maze).routeAll(queries));
+    }
+}
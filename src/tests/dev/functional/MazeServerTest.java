@@ -0,0 +1,188 @@
+package tests.dev.functional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+
+public class MazeServerTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+    private static final String NO_ROUTE = "e#x\n";
+
+    // MazeServer is in the default package, so it can only be reached reflectively from here.
+    private Object server;
+    private int port;
+
+    private static class Response {
+        int status;
+        String body;
+        HttpURLConnection connection;
+    }
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    @Before
+    public void startServer() throws Exception {
+        Class<?> serverClass = Class.forName("MazeServer");
+        server = serverClass.getConstructor(InetSocketAddress.class, String.class, Path.class)
+            .newInstance(new InetSocketAddress("localhost", 0), SearchStrategies.getNames().get(0), null);
+        serverClass.getMethod("start").invoke(server);
+        port = (Integer) serverClass.getMethod("getPort").invoke(server);
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.getClass().getMethod("stop", int.class).invoke(server, 0);
+    }
+
+    public String readMaze(String name) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(TEST_MAZES_DIR.toString(), name)), StandardCharsets.US_ASCII);
+    }
+
+    public Response send(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        Response response = new Response();
+        response.connection = connection;
+        response.status = connection.getResponseCode();
+        InputStream in = response.status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                stream.transferTo(bytes);
+            }
+        }
+        response.body = bytes.toString(StandardCharsets.UTF_8);
+        return response;
+    }
+
+    public Map<String, String> stats() throws IOException {
+        Response response = send("GET", "/stats", null);
+        assertEquals(200, response.status);
+        Map<String, String> stats = new HashMap<String, String>();
+        for (String line : response.body.split("\n")) {
+            int space = line.lastIndexOf(' ');
+            stats.put(line.substring(0, space), line.substring(space + 1));
+        }
+        return stats;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureRouteIsAnsweredFromEntranceToExit() throws Exception {
+        Maze maze = TestMazes.fromText(readMaze("maze1.txt"));
+        Response response = send("POST", "/solve", readMaze("maze1.txt"));
+        assertEquals(200, response.status);
+        String[] route = response.body.split("\n");
+        assertEquals(maze.getTileLocation(maze.getEntrance()).toString(), route[0]);
+        assertEquals(maze.getTileLocation(maze.getExit()).toString(), route[route.length - 1]);
+        assertEquals(Integer.toString(route.length), response.connection.getHeaderField("X-Route-Length"));
+    }
+
+    @Test
+    public void ensureEveryStrategyCanBeChosen() throws Exception {
+        for (String name : SearchStrategies.getNames()) {
+            Response response = send("POST", "/solve?strategy=" + name, readMaze("maze2.txt"));
+            assertEquals(name, 200, response.status);
+        }
+    }
+
+    @Test
+    public void ensureMazeFormatDrawsTheRoute() throws Exception {
+        RouteFinder routeFinder = new RouteFinder(TestMazes.fromText(readMaze("maze1.txt")));
+        routeFinder.solve();
+        Response response = send("POST", "/solve?format=maze", readMaze("maze1.txt"));
+        assertEquals(200, response.status);
+        assertEquals(routeFinder.toString(), response.body);
+    }
+
+    @Test
+    public void ensureInvalidMazeIsBadRequest() throws Exception {
+        assertEquals(400, send("POST", "/solve", "#e#\n#.\n#x#\n").status);
+        assertEquals(400, send("POST", "/solve", readMaze("invalid/noExit.txt")).status);
+    }
+
+    @Test
+    public void ensureInvalidQueryIsBadRequest() throws Exception {
+        Response response = send("POST", "/solve?strategy=sideways", readMaze("maze1.txt"));
+        assertEquals(400, response.status);
+        assertEquals("Unknown search strategy: sideways\n", response.body);
+        assertEquals(400, send("POST", "/solve?format=picture", readMaze("maze1.txt")).status);
+        assertEquals(400, send("POST", "/solve?colour=red", readMaze("maze1.txt")).status);
+    }
+
+    @Test
+    public void ensureMazeWithoutRouteIsUnprocessable() throws Exception {
+        assertEquals(422, send("POST", "/solve", NO_ROUTE).status);
+        assertEquals(422, send("POST", "/solve?format=maze", NO_ROUTE).status);
+    }
+
+    @Test
+    public void ensureOnlyPostIsAllowed() throws Exception {
+        Response response = send("GET", "/solve", null);
+        assertEquals(405, response.status);
+        assertEquals("POST", response.connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    public void ensureStatsCountRequestsByOutcome() throws Exception {
+        send("POST", "/solve", readMaze("maze1.txt"));
+        send("POST", "/solve", readMaze("maze1.txt"));
+        send("POST", "/solve", NO_ROUTE);
+        send("GET", "/solve", null);
+        Map<String, String> stats = stats();
+        assertEquals("4", stats.get("requests"));
+        assertEquals("2", stats.get("solved"));
+        assertEquals("2", stats.get("rejected"));
+        assertEquals("0", stats.get("failed"));
+        assertEquals("1", stats.get("cache_hits"));
+        assertEquals("2", stats.get("cache_misses"));
+    }
+
+    @Test
+    public void ensureStatsPercentilesAreOrdered() throws Exception {
+        Map<String, String> empty = stats();
+        assertEquals("0", empty.get("requests"));
+        assertEquals("0.000", empty.get("latency_ms max"));
+        for (int i = 0; i < 20; i++)
+            send("POST", "/solve", readMaze("maze2.txt"));
+        Map<String, String> stats = stats();
+        assertEquals("20", stats.get("requests"));
+        String[] keys = {"latency_ms p50", "latency_ms p90", "latency_ms p99", "latency_ms p99.9", "latency_ms max"};
+        double previous = 0;
+        for (String key : keys) {
+            assertNotNull(key, stats.get(key));
+            double latency = Double.parseDouble(stats.get(key));
+            assertTrue(key, latency >= previous);
+            previous = latency;
+        }
+        assertTrue(previous > 0);
+    }
+}
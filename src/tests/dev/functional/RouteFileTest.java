@@ -0,0 +1,154 @@
+package tests.dev.functional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.Tile;
+import maze.routing.RouteFinder;
+import maze.routing.SearchStrategies;
+
+public class RouteFileTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_ROUTES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "routes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Path temporaryFile() throws Exception {
+        Path file = Files.createTempFile("maze", ".route");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    public RouteFinder saveAndLoad(RouteFinder routeFinder) throws Exception {
+        Path file = temporaryFile();
+        routeFinder.save(file.toString());
+        return RouteFinder.load(file.toString());
+    }
+
+    public void assertSameSearch(RouteFinder expected, RouteFinder actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.isFinished(), actual.isFinished());
+        assertEquals(expected.getStrategy().getName(), actual.getStrategy().getName());
+        List<Tile> r1 = expected.getRoute();
+        List<Tile> r2 = actual.getRoute();
+        assertEquals(r1.size(), r2.size());
+        for (int i = 0; i < r1.size(); i++)
+            assertEquals(expected.getMaze().getTileLocation(r1.get(i)).toString(), actual.getMaze().getTileLocation(r2.get(i)).toString());
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureEveryStrategyResumesWhereItWasSaved() throws Exception {
+        for (String name : SearchStrategies.getNames()) {
+            for (int steps : new int[] {0, 1, 5, 12, 1000}) {
+                Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+                RouteFinder orig = new RouteFinder(maze, SearchStrategies.create(name));
+                orig.solve(steps);
+                RouteFinder loaded = saveAndLoad(orig);
+                assertSameSearch(orig, loaded);
+                orig.solve();
+                loaded.solve();
+                assertSameSearch(orig, loaded);
+            }
+        }
+    }
+
+    @Test
+    public void ensureFilledDeadEndsAreRestored() throws Exception {
+        for (String name : SearchStrategies.getNames()) {
+            for (int steps : new int[] {3, 1000}) {
+                Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+                RouteFinder orig = new RouteFinder(maze, SearchStrategies.create(name), true);
+                orig.solve(steps);
+                RouteFinder loaded = saveAndLoad(orig);
+                assertTrue(loaded.isFillingDeadEnds());
+                assertEquals(orig.getPrunedCount(), loaded.getPrunedCount());
+                assertEquals(orig.getState().getVisited(), loaded.getState().getVisited());
+                assertSameSearch(orig, loaded);
+                orig.solve();
+                loaded.solve();
+                assertSameSearch(orig, loaded);
+            }
+        }
+    }
+
+    @Test
+    public void ensureRouteFileIsSmallerThanSerializedRoute() throws Exception {
+        RouteFinder routeFinder = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt"));
+        routeFinder.solve();
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(routeFinder);
+        }
+        Path file = temporaryFile();
+        routeFinder.save(file.toString());
+        assertTrue(Files.size(file) * 4 < serialized.size());
+    }
+
+    @Test
+    public void ensureLegacyRouteFileCanBeLoaded() throws Exception {
+        RouteFinder loaded = RouteFinder.load(Paths.get(TEST_ROUTES_DIR.toString(), "legacy", "route1_midState.route").toString());
+        RouteFinder expected = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze1.txt"));
+        expected.solve(7);
+        assertSameSearch(expected, loaded);
+        expected.solve();
+        loaded.solve();
+        assertSameSearch(expected, loaded);
+    }
+
+    @Test
+    public void ensureTruncatedRouteFileErrorsWithEOF() throws Exception {
+        RouteFinder routeFinder = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt"));
+        routeFinder.solve(10);
+        Path file = temporaryFile();
+        routeFinder.save(file.toString());
+        byte[] bytes = Files.readAllBytes(file);
+        for (int length : new int[] {3, 20, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            try {
+                RouteFinder.load(file.toString());
+                fail("Truncated route file was loaded");
+            } catch (EOFException e) {}
+        }
+    }
+
+    @Test
+    public void ensureOversizedRouteFileIsRejectedUpFront() throws Exception {
+        Path file = temporaryFile();
+        // Sparse, so the file takes no space on disk.
+        try (RandomAccessFile out = new RandomAccessFile(file.toFile(), "rw")) {
+            out.writeInt(0x524f5554);
+            out.setLength(3L << 30);
+        }
+        try {
+            RouteFinder.load(file.toString());
+            fail("Oversized route file was loaded");
+        } catch (EOFException e) {
+            fail("Oversized route file was read as truncated");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("too large"));
+        }
+    }
+
+    @Test
+    public void ensureOtherFilesAreRejected() throws Exception {
+        try {
+            RouteFinder.load(Paths.get("resources", "mazes", "maze1.txt").toString());
+            fail("Text maze was loaded as a route");
+        } catch (IOException e) {}
+    }
+}
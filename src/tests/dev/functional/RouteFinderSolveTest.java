@@ -0,0 +1,112 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+
+public class RouteFinderSolveTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public static Maze setupForMaze(String name) {
+        Maze rtn = null;
+        try {
+            rtn = Maze.fromTxt(Paths.get(TEST_MAZES_DIR.toString(), name).toString());
+        } catch (Exception e) { fail(e.getClass().getName() + ": " + e.getMessage()); }
+        return rtn;
+    }
+
+    private RouteFinder stepUntilFinished(Maze maze) throws NoRouteFoundException {
+        RouteFinder routeFinder = new RouteFinder(maze);
+        while (!routeFinder.isFinished())
+            routeFinder.step();
+        return routeFinder;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureSolveMatchesStepsForMaze1() throws NoRouteFoundException {
+        RouteFinder stepped = stepUntilFinished(setupForMaze("maze1.txt"));
+        RouteFinder solved = new RouteFinder(setupForMaze("maze1.txt"));
+        assertTrue(solved.solve());
+        assertEquals(stepped.toString(), solved.toString());
+        assertEquals(stepped.getRoute().size(), solved.getRoute().size());
+    }
+
+    @Test
+    public void ensureSolveMatchesStepsForMaze2() throws NoRouteFoundException {
+        RouteFinder stepped = stepUntilFinished(setupForMaze("maze2.txt"));
+        RouteFinder solved = new RouteFinder(setupForMaze("maze2.txt"));
+        assertTrue(solved.solve());
+        assertEquals(stepped.toString(), solved.toString());
+    }
+
+    @Test
+    public void ensureSolveWithMaxStepsMatchesSteps() throws NoRouteFoundException {
+        RouteFinder stepped = new RouteFinder(setupForMaze("maze2.txt"));
+        for (int i = 0; i < 10; i++)
+            stepped.step();
+        RouteFinder solved = new RouteFinder(setupForMaze("maze2.txt"));
+        assertFalse(solved.solve(10));
+        assertEquals(stepped.toString(), solved.toString());
+
+        // Continuing with step() after solve() picks up where it stopped.
+        stepped.step();
+        solved.step();
+        assertEquals(stepped.toString(), solved.toString());
+    }
+
+    @Test
+    public void ensureSolveThrowsWhenThereIsNoRoute() {
+        Maze maze = TestMazes.fromText("e.#.x\n");
+        assertThrows(NoRouteFoundException.class, () -> new RouteFinder(maze).solve());
+    }
+
+    @Test
+    public void ensureStepFailsFastWhenThereIsNoRoute() {
+        Maze maze = TestMazes.fromText("e...#.\n....#x\n");
+        RouteFinder routeFinder = new RouteFinder(maze);
+        assertThrows(NoRouteFoundException.class, () -> routeFinder.step());
+        assertFalse(routeFinder.isVisited(maze.getTileAtLocation(new Maze.Coordinate(3, 0))));
+    }
+
+    @Test
+    public void ensureComponentsFollowConnectivity() {
+        Maze maze = TestMazes.fromText("e.#.x\n");
+        assertFalse(maze.isSolvable());
+        assertEquals(0, maze.componentOf(new Maze.Coordinate(0, 0)));
+        assertEquals(0, maze.componentOf(new Maze.Coordinate(1, 0)));
+        assertEquals(-1, maze.componentOf(new Maze.Coordinate(2, 0)));
+        assertEquals(1, maze.componentOf(new Maze.Coordinate(4, 0)));
+        assertEquals(-1, maze.componentOf(new Maze.Coordinate(5, 0)));
+        assertTrue(setupForMaze("maze2.txt").isSolvable());
+
+        // Setting a tile labels the components again.
+        maze.getTiles().get(0).set(2, maze.getTiles().get(0).get(1));
+        assertTrue(maze.isSolvable());
+        assertEquals(0, maze.componentOf(new Maze.Coordinate(4, 0)));
+    }
+
+    @Test
+    public void ensureWriteToMatchesToString() throws IOException, NoRouteFoundException {
+        RouteFinder routeFinder = new RouteFinder(setupForMaze("maze2.txt"));
+        routeFinder.solve(10);
+        StringWriter out = new StringWriter();
+        routeFinder.writeTo(out);
+        assertEquals(routeFinder.toString(), out.toString());
+        assertTrue(routeFinder.toString().contains("*"));
+        assertTrue(routeFinder.getMaze().getGrid().getTextLength() >= routeFinder.toString().length());
+    }
+}
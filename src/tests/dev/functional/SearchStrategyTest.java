@@ -0,0 +1,314 @@
+package tests.dev.functional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.MazeGrid;
+import maze.Tile;
+import maze.routing.ClusterAbstraction;
+import maze.routing.HierarchicalSearch;
+import maze.routing.NoRouteFoundException;
+import maze.routing.RouteFinder;
+import maze.routing.SearchSnapshot;
+import maze.routing.SearchState;
+import maze.routing.SearchStrategies;
+
+public class SearchStrategyTest {
+
+    private static final String OPEN_MAZE =
+        "e.........\n" +
+        "....#.....\n" +
+        "..#.#..#..\n" +
+        "..#.##.#..\n" +
+        "..#....#..\n" +
+        "....#.....\n" +
+        ".........x\n";
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    private RouteFinder solveByStepping(Maze maze, String strategy) throws NoRouteFoundException {
+        RouteFinder routeFinder = new RouteFinder(maze, SearchStrategies.create(strategy));
+        // Generous bound so that a strategy that never finishes fails instead of hanging.
+        for (int i = 0; i < 10000 && !routeFinder.step(); i++);
+        assertTrue(routeFinder.isFinished());
+        return routeFinder;
+    }
+
+    private void ensureValidRoute(Maze maze, List<Tile> route) {
+        assertSame(maze.getEntrance(), route.get(0));
+        assertSame(maze.getExit(), route.get(route.size() - 1));
+        for (int i = 1; i < route.size(); i++) {
+            Maze.Coordinate a = maze.getTileLocation(route.get(i - 1));
+            Maze.Coordinate b = maze.getTileLocation(route.get(i));
+            assertTrue(route.get(i).isNavigable());
+            assertEquals(1, Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY()));
+        }
+    }
+
+    private void ensureShortestRoutes(Maze maze) throws NoRouteFoundException {
+        int shortest = solveByStepping(maze, "bfs").getRoute().size();
+        for (String strategy : SearchStrategies.getNames()) {
+            RouteFinder routeFinder = solveByStepping(maze, strategy);
+            ensureValidRoute(maze, routeFinder.getRoute());
+            if (!strategy.equals("dfs"))
+                assertEquals(strategy, shortest, routeFinder.getRoute().size());
+        }
+    }
+
+    private int[] drawnCells(SearchState state) {
+        MazeGrid grid = state.getGrid();
+        int[] drawn = new int[grid.getSize()];
+        for (int cell = 0; cell < drawn.length; cell++)
+            drawn[cell] = state.isVisited(cell) ? 5 : grid.getType(cell).ordinal();
+        for (int i = 0; i < state.getRouteSize(); i++)
+            drawn[state.getRouteCell(i)] = 6;
+        if (state.getRouteSize() > 0)
+            drawn[state.peekRoute()] = 7;
+        return drawn;
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureDefaultStrategyIsDepthFirst() {
+        RouteFinder routeFinder = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze1.txt"));
+        assertEquals("dfs", routeFinder.getStrategy().getName());
+    }
+
+    @Test
+    public void ensureShortestRoutesOnMaze1() throws NoRouteFoundException {
+        ensureShortestRoutes(RouteFinderSolveTest.setupForMaze("maze1.txt"));
+    }
+
+    @Test
+    public void ensureShortestRoutesOnMaze2() throws NoRouteFoundException {
+        Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+        ensureShortestRoutes(maze);
+        assertEquals(19, solveByStepping(maze, "bfs").getRoute().size());
+    }
+
+    @Test
+    public void ensureShortestRoutesOnOpenMaze() throws NoRouteFoundException {
+        Maze maze = TestMazes.fromText(OPEN_MAZE);
+        ensureShortestRoutes(maze);
+        assertEquals(16, solveByStepping(maze, "astar").getRoute().size());
+    }
+
+    @Test
+    public void ensureSolveMatchesStepsForEveryStrategy() throws NoRouteFoundException {
+        for (String strategy : SearchStrategies.getNames()) {
+            RouteFinder stepped = solveByStepping(TestMazes.fromText(OPEN_MAZE), strategy);
+            RouteFinder solved = new RouteFinder(TestMazes.fromText(OPEN_MAZE), SearchStrategies.create(strategy));
+            assertTrue(solved.solve());
+            assertEquals(strategy, stepped.toString(), solved.toString());
+        }
+    }
+
+    @Test
+    public void ensureEveryStrategyThrowsWhenThereIsNoRoute() {
+        for (String strategy : SearchStrategies.getNames()) {
+            Maze maze = TestMazes.fromText("e.#..\n..#.x\n");
+            RouteFinder routeFinder = new RouteFinder(maze, SearchStrategies.create(strategy));
+            assertThrows(strategy, NoRouteFoundException.class, () -> routeFinder.solve());
+        }
+    }
+
+    @Test
+    public void ensureRouteGrowsWhileStepping() throws NoRouteFoundException {
+        for (String strategy : SearchStrategies.getNames()) {
+            Maze maze = TestMazes.fromText(OPEN_MAZE);
+            RouteFinder routeFinder = new RouteFinder(maze, SearchStrategies.create(strategy));
+            routeFinder.solve(5);
+            // A maze that fits in one cluster takes the hierarchical search two steps, from the entrance to the exit.
+            if (!strategy.equals("hpa"))
+                assertFalse(routeFinder.isFinished());
+            assertTrue(strategy, routeFinder.getRoute().size() > 1);
+            assertTrue(strategy, routeFinder.isVisited(maze.getEntrance()));
+        }
+    }
+
+    @Test
+    public void ensureUnknownStrategyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SearchStrategies.create("teleport"));
+    }
+
+    @Test
+    public void ensureRecordedChangesCoverEveryStep() throws NoRouteFoundException {
+        Maze maze = TestMazes.fromText(OPEN_MAZE);
+        for (String strategy : SearchStrategies.getNames()) {
+            RouteFinder routeFinder = new RouteFinder(maze, SearchStrategies.create(strategy));
+            SearchState state = routeFinder.getState();
+            state.recordChanges();
+            state.drainChanges(cell -> { });
+            int[] drawn = drawnCells(state);
+            while (!routeFinder.step()) {
+                Set<Integer> changed = new HashSet<Integer>();
+                assertTrue(strategy, state.drainChanges(changed::add));
+                int[] current = drawnCells(state);
+                for (int cell = 0; cell < current.length; cell++) {
+                    if (current[cell] != drawn[cell])
+                        assertTrue(strategy + " cell " + cell, changed.contains(cell));
+                    assertEquals(current[cell] >= 6, state.isOnRoute(cell));
+                }
+                drawn = current;
+            }
+        }
+    }
+
+    @Test
+    public void ensureDepthFirstStepRecordsFewChanges() throws NoRouteFoundException {
+        RouteFinder routeFinder = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt"));
+        SearchState state = routeFinder.getState();
+        assertFalse(state.drainChanges(cell -> { }));
+        state.recordChanges();
+        do {
+            Set<Integer> changed = new HashSet<Integer>();
+            assertTrue(state.drainChanges(changed::add));
+            assertTrue(changed.size() <= 3);
+        } while (!routeFinder.step());
+    }
+
+    @Test
+    public void ensureSnapshotsReplayTheSearch() throws NoRouteFoundException {
+        Maze maze = TestMazes.fromText(OPEN_MAZE);
+        for (String strategy : SearchStrategies.getNames()) {
+            RouteFinder routeFinder = new RouteFinder(maze, SearchStrategies.create(strategy));
+            SearchSnapshot first = routeFinder.snapshot(true);
+            assertTrue(first.isFull());
+            int[] marks = new int[maze.getGrid().getSize()];
+            for (int cell = 0; cell < marks.length; cell++)
+                marks[cell] = first.getMark(cell);
+            boolean finished = false;
+            while (!finished) {
+                finished = routeFinder.solve(3);
+                SearchSnapshot snapshot = routeFinder.snapshot(false);
+                assertFalse(snapshot.isFull());
+                assertEquals(finished, snapshot.isFinished());
+                for (int i = 0; i < snapshot.getChangeCount(); i++)
+                    marks[snapshot.getChangedCell(i)] = snapshot.getChangedMark(i);
+                SearchSnapshot full = routeFinder.snapshot(true);
+                assertEquals(snapshot.getSteps(), full.getSteps());
+                assertEquals(snapshot.getRouteSize(), full.getRouteSize());
+                for (int cell = 0; cell < marks.length; cell++)
+                    assertEquals(strategy + " cell " + cell, full.getMark(cell), marks[cell]);
+            }
+            assertEquals(SearchSnapshot.NONE, first.getMark(maze.getGrid().getSize() - 1));
+        }
+    }
+
+    @Test
+    public void ensureDeadEndFillingKeepsShortestRoutes() throws NoRouteFoundException {
+        for (String text : new String[] {OPEN_MAZE, "e.#.....\n..#.##.#\n.....#.x\n"}) {
+            Maze maze = TestMazes.fromText(text);
+            String before = maze.toString();
+            for (String strategy : SearchStrategies.getNames()) {
+                RouteFinder plain = new RouteFinder(maze, SearchStrategies.create(strategy));
+                plain.solve();
+                RouteFinder filled = new RouteFinder(maze, SearchStrategies.create(strategy), true);
+                filled.solve();
+                ensureValidRoute(maze, filled.getRoute());
+                if (!strategy.equals("dfs"))
+                    assertEquals(strategy, plain.getRoute().size(), filled.getRoute().size());
+            }
+            assertEquals(before, maze.toString());
+        }
+    }
+
+    @Test
+    public void ensureDeadEndFillingLeavesOnlyTheRouteOfPerfectMazes() throws NoRouteFoundException {
+        Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+        RouteFinder plain = new RouteFinder(maze);
+        plain.solve();
+        RouteFinder filled = new RouteFinder(maze, SearchStrategies.create("dfs"), true);
+        filled.solve();
+        ensureValidRoute(maze, filled.getRoute());
+        assertEquals(0, plain.getPrunedCount());
+        assertTrue(filled.getPrunedCount() > 0);
+        assertTrue(filled.getSteps() < plain.getSteps());
+        // Without dead ends a depth-first search never backtracks, and visits every cell of the route but the exit.
+        assertEquals(filled.getRoute().size() - 1, filled.getState().getVisited().cardinality());
+    }
+
+    @Test
+    public void ensureJumpPointSearchFindsShortestRoutesOnOpenMazes() throws NoRouteFoundException {
+        Random random = new Random(7);
+        int solvable = 0;
+        for (int i = 0; i < 200; i++) {
+            Maze maze = TestMazes.open(4 + random.nextInt(20), 4 + random.nextInt(20), 0.3, random.nextLong());
+            if (!maze.isSolvable())
+                continue;
+            RouteFinder bfs = new RouteFinder(maze, SearchStrategies.create("bfs"));
+            bfs.solve();
+            RouteFinder jps = new RouteFinder(maze, SearchStrategies.create("jps"));
+            jps.solve();
+            ensureValidRoute(maze, jps.getRoute());
+            assertEquals(bfs.getRoute().size(), jps.getRoute().size());
+            solvable++;
+        }
+        assertTrue(solvable > 50);
+    }
+
+    @Test
+    public void ensureJumpPointSearchExpandsFewerCellsThanAStar() throws NoRouteFoundException {
+        Maze maze = TestMazes.open(64, 64, 0.1, 11);
+        RouteFinder astar = new RouteFinder(maze, SearchStrategies.create("astar"));
+        astar.solve();
+        RouteFinder jps = new RouteFinder(maze, SearchStrategies.create("jps"));
+        jps.solve();
+        assertEquals(astar.getRoute().size(), jps.getRoute().size());
+        assertTrue(jps.getState().getExpandedCount() < astar.getState().getExpandedCount());
+    }
+
+    @Test
+    public void ensureHierarchicalRoutesAreNearlyShortest() throws NoRouteFoundException {
+        Random random = new Random(5);
+        int solvable = 0;
+        for (int i = 0; i < 100; i++) {
+            Maze maze = TestMazes.open(20 + random.nextInt(60), 20 + random.nextInt(60), 0.3, random.nextLong());
+            if (!maze.isSolvable())
+                continue;
+            RouteFinder bfs = new RouteFinder(maze, SearchStrategies.create("bfs"));
+            bfs.solve();
+            RouteFinder hpa = new RouteFinder(maze, SearchStrategies.create("hpa"));
+            hpa.solve();
+            ensureValidRoute(maze, hpa.getRoute());
+            assertTrue(hpa.getRoute().size() >= bfs.getRoute().size());
+            assertTrue(hpa.getRoute().size() <= bfs.getRoute().size() * 6 / 5);
+            solvable++;
+        }
+        assertTrue(solvable > 20);
+    }
+
+    @Test
+    public void ensureHierarchicalSearchesShareTheAbstraction() throws NoRouteFoundException {
+        Maze maze = TestMazes.open(48, 40, 0.1, 3);
+        RouteFinder first = new RouteFinder(maze, SearchStrategies.create("hpa"));
+        ClusterAbstraction abstraction = ((HierarchicalSearch) first.getStrategy()).getAbstraction();
+        assertTrue(abstraction.getNodeCount() > 0);
+        RouteFinder second = new RouteFinder(maze, SearchStrategies.create("hpa"));
+        assertSame(abstraction, ((HierarchicalSearch) second.getStrategy()).getAbstraction());
+        assertEquals(first.solve(), second.solve());
+        assertEquals(first.getRoute(), second.getRoute());
+
+        // Once a tile is set the abstraction is rebuilt for the next search.
+        Tile wall = null;
+        for (List<Tile> row : maze.getTiles())
+            for (Tile tile : row)
+                if (!tile.isNavigable())
+                    wall = tile;
+        maze.getTiles().get(1).set(1, wall);
+        assertFalse(abstraction.isCurrent(maze.getGrid()));
+        RouteFinder third = new RouteFinder(maze, SearchStrategies.create("hpa"));
+        assertNotSame(abstraction, ((HierarchicalSearch) third.getStrategy()).getAbstraction());
+        if (maze.isSolvable()) {
+            third.solve();
+            ensureValidRoute(maze, third.getRoute());
+        }
+    }
+}
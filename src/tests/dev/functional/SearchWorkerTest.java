@@ -0,0 +1,145 @@
+package tests.dev.functional;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.routing.RouteFinder;
+import maze.routing.SearchSnapshot;
+import maze.visualisation.SearchWorker;
+
+public class SearchWorkerTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public SearchWorker.Progress awaitProgress(SearchWorker worker) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        SearchWorker.Progress progress = worker.poll();
+        while (progress == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+            progress = worker.poll();
+        }
+        assertNotNull("The worker published nothing", progress);
+        return progress;
+    }
+
+    public void apply(int[] marks, SearchSnapshot snapshot) {
+        if (snapshot.isFull()) {
+            for (int cell = 0; cell < marks.length; cell++)
+                marks[cell] = snapshot.getMark(cell);
+            return;
+        }
+        for (int i = 0; i < snapshot.getChangeCount(); i++)
+            marks[snapshot.getChangedCell(i)] = snapshot.getChangedMark(i);
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureOneBatchIsPendingAtATime() throws Exception {
+        SearchWorker worker = new SearchWorker(new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt")));
+        worker.start();
+        try {
+            assertFalse(worker.isPending());
+            assertTrue(worker.request(3));
+            assertTrue(worker.isPending());
+            assertFalse(worker.request(3));
+            SearchWorker.Progress progress = awaitProgress(worker);
+            assertFalse(worker.isPending());
+            assertEquals(3, progress.getSnapshot().getSteps());
+            assertNull(worker.poll());
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void ensureStepsAreOnlyPerformedWhenRequested() throws Exception {
+        RouteFinder routeFinder = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt"));
+        SearchWorker worker = new SearchWorker(routeFinder);
+        worker.start();
+        try {
+            worker.request(2);
+            awaitProgress(worker);
+            Thread.sleep(50);
+            assertEquals(2, routeFinder.getSteps());
+            assertNull(worker.poll());
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void ensureSnapshotsReplayTheSearch() throws Exception {
+        Maze maze = RouteFinderSolveTest.setupForMaze("maze2.txt");
+        SearchWorker worker = new SearchWorker(new RouteFinder(maze));
+        worker.start();
+        int[] marks = new int[maze.getGrid().getSize()];
+        try {
+            worker.request(4);
+            SearchSnapshot first = awaitProgress(worker).getSnapshot();
+            assertTrue(first.isFull());
+            apply(marks, first);
+            for (int batch = 0; batch < 3; batch++) {
+                worker.request(3);
+                SearchSnapshot next = awaitProgress(worker).getSnapshot();
+                assertFalse(next.isFull());
+                apply(marks, next);
+            }
+        } finally {
+            worker.stop();
+        }
+        // The full snapshot followed by the changes draws what the search looks like after all the steps.
+        RouteFinder expected = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt"));
+        expected.solve(13);
+        SearchSnapshot reference = expected.snapshot(true);
+        for (int cell = 0; cell < marks.length; cell++)
+            assertEquals("cell " + cell, reference.getMark(cell), marks[cell]);
+    }
+
+    @Test
+    public void ensureFinishedSearchIsDone() throws Exception {
+        SearchWorker worker = new SearchWorker(new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt")));
+        worker.start();
+        try {
+            worker.request(1);
+            assertFalse(awaitProgress(worker).isDone());
+            worker.request(1 << 20);
+            SearchWorker.Progress progress = awaitProgress(worker);
+            assertTrue(progress.isDone());
+            assertTrue(progress.getSnapshot().isFinished());
+            assertNull(progress.getFailure());
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void ensureFailedSearchPublishesTheFailure() throws Exception {
+        SearchWorker worker = new SearchWorker(new RouteFinder(TestMazes.fromText("e#x\n")));
+        worker.start();
+        try {
+            worker.request(100);
+            SearchWorker.Progress progress = awaitProgress(worker);
+            assertTrue(progress.isDone());
+            assertNotNull(progress.getFailure());
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    public void ensureStoppedWorkerPublishesNothing() throws Exception {
+        RouteFinder routeFinder = new RouteFinder(RouteFinderSolveTest.setupForMaze("maze2.txt"));
+        SearchWorker worker = new SearchWorker(routeFinder);
+        worker.start();
+        worker.stop();
+        worker.request(1);
+        Thread.sleep(50);
+        assertNull(worker.poll());
+        assertEquals(0, routeFinder.getSteps());
+        assertThrows(IllegalArgumentException.class, () -> worker.request(0));
+    }
+}
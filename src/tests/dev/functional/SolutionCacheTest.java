@@ -0,0 +1,167 @@
+package tests.dev.functional;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.Maze;
+import maze.MazeGrid;
+import maze.Tile;
+import maze.routing.RouteFinder;
+import maze.routing.SolutionCache;
+import maze.routing.SolutionCache.Solution;
+
+public class SolutionCacheTest {
+
+    private static Path WORKING_DIR = Paths.get("");
+    private static Path TEST_MAZES_DIR = Paths.get(WORKING_DIR.toString(), "resources", "mazes");
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Maze setupForMaze(String name) {
+        Maze rtn = null;
+        Path filePath = Paths.get(TEST_MAZES_DIR.toString(), name);
+        try {
+            rtn = Maze.fromTxt(filePath.toString());
+        } catch (Exception e) { fail(e.getClass().getName() + ": " + e.getMessage()); }
+        return rtn;
+    }
+
+    public Path createDirectory() throws Exception {
+        Path directory = Files.createTempDirectory("solutions");
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+
+    public void deleteDirectory(Path directory) {
+        for (File file : directory.toFile().listFiles())
+            file.delete();
+        directory.toFile().delete();
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureContentHashFollowsCells() throws Exception {
+        Maze maze = setupForMaze("maze2.txt");
+        Maze mapped = Maze.mapTxt(Paths.get(TEST_MAZES_DIR.toString(), "maze2.txt"));
+        assertEquals(maze.getGrid().getContentHash(), mapped.getGrid().getContentHash());
+        assertNotEquals(maze.getGrid().getContentHash(), setupForMaze("maze1.txt").getGrid().getContentHash());
+
+        long hash = maze.getGrid().getContentHash();
+        maze.getTiles().get(1).set(1, maze.getTileAtLocation(new Maze.Coordinate(0, 0)));
+        assertNotEquals(hash, maze.getGrid().getContentHash());
+    }
+
+    @Test
+    public void ensureCachedSolutionMatchesSearch() throws Exception {
+        Maze maze = setupForMaze("maze2.txt");
+        RouteFinder routeFinder = new RouteFinder(maze);
+        routeFinder.solve();
+        Solution solution = new SolutionCache(1 << 20).solve(setupForMaze("maze2.txt"), "dfs");
+        assertTrue(solution.isSolvable());
+        assertEquals(routeFinder.getState().getRouteSize(), solution.getRouteSize());
+        assertEquals(routeFinder.getState().getVisited().cardinality(), solution.getTilesVisited());
+        for (int i = 0; i < solution.getRouteSize(); i++)
+            assertEquals(routeFinder.getState().getRouteCell(i), solution.getRouteCell(i));
+    }
+
+    @Test
+    public void ensureRepeatedMazeIsSolvedOnce() {
+        SolutionCache cache = new SolutionCache(1 << 20);
+        Solution solution = cache.solve(setupForMaze("maze2.txt"), "bfs");
+        assertSame(solution, cache.solve(setupForMaze("maze2.txt"), "bfs"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // Another strategy finds another route, so it is cached apart.
+        assertNotSame(solution, cache.solve(setupForMaze("maze2.txt"), "dfs"));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void ensureLeastRecentlyUsedSolutionIsEvicted() {
+        SolutionCache sizes = new SolutionCache(1 << 20);
+        sizes.solve(setupForMaze("maze1.txt"), "bfs");
+        long maze1 = sizes.getMemoryBytes();
+        sizes.solve(setupForMaze("maze2.txt"), "bfs");
+        long maze2 = sizes.getMemoryBytes() - maze1;
+
+        SolutionCache cache = new SolutionCache(maze1 + maze2);
+        cache.solve(setupForMaze("maze1.txt"), "bfs");
+        cache.solve(setupForMaze("maze2.txt"), "bfs");
+        cache.solve(setupForMaze("maze1.txt"), "bfs");
+        cache.solve(setupForMaze("maze1.txt"), "dfs");
+        assertTrue(cache.getMemoryBytes() <= maze1 + maze2);
+        assertEquals(1, cache.getHits());
+        cache.solve(setupForMaze("maze1.txt"), "bfs");
+        assertEquals(2, cache.getHits());
+        cache.solve(setupForMaze("maze2.txt"), "bfs");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void ensureDiskTierOutlivesCache() throws Exception {
+        Path directory = createDirectory();
+        try {
+            Solution solution = new SolutionCache(1 << 20, directory).solve(setupForMaze("maze2.txt"), "astar");
+            SolutionCache cache = new SolutionCache(1 << 20, directory);
+            Solution read = cache.solve(setupForMaze("maze2.txt"), "astar");
+            assertEquals(1, cache.getDiskHits());
+            assertEquals(0, cache.getMisses());
+            assertEquals(solution.getRouteSize(), read.getRouteSize());
+            assertEquals(solution.getTilesVisited(), read.getTilesVisited());
+            assertEquals(solution.getSteps(), read.getSteps());
+            for (int i = 0; i < solution.getRouteSize(); i++)
+                assertEquals(solution.getRouteCell(i), read.getRouteCell(i));
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void ensureMazeWithoutRouteIsCached() throws Exception {
+        Path file = TestMazes.writeText("e#x\n");
+        SolutionCache cache = new SolutionCache(1 << 20);
+        assertFalse(cache.solve(Maze.fromTxt(file.toString()), "dfs").isSolvable());
+        Solution solution = cache.solve(Maze.fromTxt(file.toString()), "dfs");
+        assertFalse(solution.isSolvable());
+        assertEquals(0, solution.getRouteSize());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void ensureSolutionOfAnotherMazeIsAMiss() throws Exception {
+        // Same size, the entrance and exit are swapped, so the route of one leads nowhere in the other.
+        Maze maze = TestMazes.fromText("#e#\n#..\n#x#\n");
+        Maze other = TestMazes.fromText("#x#\n#..\n#e#\n");
+        Path directory = createDirectory();
+        Path otherDirectory = createDirectory();
+        try {
+            new SolutionCache(1 << 20, directory).solve(maze, "bfs");
+            new SolutionCache(1 << 20, otherDirectory).solve(other, "bfs");
+            File[] files = directory.toFile().listFiles();
+            File[] otherFiles = otherDirectory.toFile().listFiles();
+            assertEquals(1, files.length);
+            assertEquals(1, otherFiles.length);
+            // A stale file under the name of the other maze, as a hash collision would give.
+            Files.copy(files[0].toPath(), otherFiles[0].toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            SolutionCache cache = new SolutionCache(1 << 20, otherDirectory);
+            Solution solution = cache.solve(other, "bfs");
+            assertEquals(0, cache.getDiskHits());
+            assertEquals(1, cache.getMisses());
+            MazeGrid grid = other.getGrid();
+            assertEquals(Tile.Type.ENTRANCE, grid.getType(solution.getRouteCell(0)));
+            assertEquals(Tile.Type.EXIT, grid.getType(solution.getRouteCell(solution.getRouteSize() - 1)));
+        } finally {
+            deleteDirectory(directory);
+            deleteDirectory(otherDirectory);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package tests.dev.functional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+import benchmarks.MazeGenerator;
+import maze.Maze;
+
+// Mazes shared by the functional tests: text mazes written to temporary files, and generated open mazes.
+public final class TestMazes {
+
+    private TestMazes() {
+    }
+
+    public static Path writeText(String text) throws IOException {
+        Path file = Files.createTempFile("maze", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes("US-ASCII"));
+        return file;
+    }
+
+    public static Maze fromText(String text) {
+        Maze rtn = null;
+        try {
+            rtn = Maze.fromTxt(writeText(text).toString());
+        } catch (Exception e) { fail(e.getClass().getName() + ": " + e.getMessage()); }
+        return rtn;
+    }
+
+    public static Maze open(int width, int height, double wallDensity, long seed) {
+        Maze rtn = null;
+        try {
+            rtn = Maze.fromTxt(MazeGenerator.writeTemporary(MazeGenerator.open(width, height, wallDensity, seed)).toString());
+        } catch (Exception e) { fail(e.getClass().getName() + ": " + e.getMessage()); }
+        return rtn;
+    }
+}
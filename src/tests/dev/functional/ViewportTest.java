@@ -0,0 +1,145 @@
+package tests.dev.functional;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import maze.visualisation.Viewport;
+
+public class ViewportTest {
+
+    private static final double DELTA = 1e-9;
+
+    // ~~~~~~~~~~ Utility Functions ~~~~~~~~~~
+
+    public Viewport setupViewport(int columns, int rows, double width, double height) {
+        Viewport viewport = new Viewport(32, 64, 1.25);
+        viewport.setSize(width, height);
+        viewport.setGridSize(columns, rows);
+        viewport.zoomToFit();
+        return viewport;
+    }
+
+    public void zoomToTiles(Viewport viewport) {
+        while (viewport.getCellSize() < 32)
+            viewport.zoom(true, 0, 0);
+    }
+
+    // ~~~~~~~~~~ Functionality tests ~~~~~~~~~~
+
+    @Test
+    public void ensureSmallMazeFitsWithFullSizeTiles() {
+        Viewport viewport = setupViewport(5, 6, 480, 360);
+        assertEquals(32, viewport.getCellSize(), DELTA);
+        assertEquals(0, viewport.getMaxOriginX(), DELTA);
+        assertEquals(0, viewport.getMaxOriginY(), DELTA);
+        assertEquals(5, viewport.getEndColumn());
+        assertEquals(6, viewport.getEndRow());
+    }
+
+    @Test
+    public void ensureLargeMazeFitsWhole() {
+        Viewport viewport = setupViewport(2000, 1000, 400, 300);
+        assertEquals(0.2, viewport.getCellSize(), DELTA);
+        assertEquals(0, viewport.getMaxOriginX(), DELTA);
+        assertEquals(0, viewport.getFirstColumn());
+        assertEquals(2000, viewport.getEndColumn());
+        assertEquals(1000, viewport.getEndRow());
+        // A pixel samples the cell at its centre, and a cell smaller than a pixel still covers the one it falls in.
+        assertEquals(2, viewport.columnAt(0));
+        assertEquals(1997, viewport.columnAt(399));
+        assertEquals(0, viewport.pixelLeft(3));
+        assertEquals(1, viewport.pixelRight(3));
+    }
+
+    @Test
+    public void ensureScrollingStaysInsideTheMaze() {
+        Viewport viewport = setupViewport(100, 100, 400, 300);
+        viewport.zoom(true, 0, 0);
+        viewport.zoom(true, 0, 0);
+        assertEquals(4.6875, viewport.getCellSize(), DELTA);
+        viewport.scrollTo(-5, 1000);
+        assertEquals(0, viewport.getOriginX(), DELTA);
+        assertEquals(100 - 300 / 4.6875, viewport.getOriginY(), DELTA);
+        viewport.scrollTo(1000, -5);
+        assertEquals(100 - 400 / 4.6875, viewport.getOriginX(), DELTA);
+        assertEquals(0, viewport.getOriginY(), DELTA);
+        assertEquals(100, viewport.getEndColumn());
+    }
+
+    @Test
+    public void ensureDraggingMovesTheMazeWithThePointer() {
+        Viewport viewport = setupViewport(100, 100, 400, 300);
+        zoomToTiles(viewport);
+        viewport.scrollTo(10, 10);
+        // Dragging left by two cells shows the cells two columns further right.
+        viewport.drag(-2 * viewport.getCellSize(), viewport.getCellSize());
+        assertEquals(12, viewport.getOriginX(), DELTA);
+        assertEquals(9, viewport.getOriginY(), DELTA);
+    }
+
+    @Test
+    public void ensureZoomKeepsTheCellUnderThePointer() {
+        Viewport viewport = setupViewport(1000, 1000, 400, 300);
+        zoomToTiles(viewport);
+        viewport.scrollTo(200, 300);
+        double column = viewport.getOriginX() + 150 / viewport.getCellSize();
+        double row = viewport.getOriginY() + 100 / viewport.getCellSize();
+        viewport.zoom(true, 150, 100);
+        assertEquals(column, viewport.getOriginX() + 150 / viewport.getCellSize(), 1e-6);
+        assertEquals(row, viewport.getOriginY() + 100 / viewport.getCellSize(), 1e-6);
+        viewport.zoom(false, 150, 100);
+        assertEquals(column, viewport.getOriginX() + 150 / viewport.getCellSize(), 1e-6);
+        assertEquals(row, viewport.getOriginY() + 100 / viewport.getCellSize(), 1e-6);
+    }
+
+    @Test
+    public void ensureZoomIsBounded() {
+        Viewport viewport = setupViewport(1000, 500, 400, 300);
+        double fit = viewport.getCellSize();
+        viewport.zoom(false, 0, 0);
+        assertEquals(fit, viewport.getCellSize(), DELTA);
+        for (int i = 0; i < 100; i++)
+            viewport.zoom(true, 0, 0);
+        assertEquals(64, viewport.getCellSize(), DELTA);
+
+        // A small maze is never zoomed out below the size of the tile images.
+        Viewport small = setupViewport(3, 3, 400, 300);
+        small.zoom(false, 0, 0);
+        assertEquals(32, small.getCellSize(), DELTA);
+    }
+
+    @Test
+    public void ensureOnlyCellsInTheViewAreDrawn() {
+        Viewport viewport = setupViewport(100, 100, 400, 300);
+        zoomToTiles(viewport);
+        viewport.scrollTo(10.5, 20.25);
+        double size = viewport.getCellSize();
+        assertEquals(10, viewport.getFirstColumn());
+        assertEquals(20, viewport.getFirstRow());
+        assertEquals((int) Math.ceil(10.5 + 400 / size), viewport.getEndColumn());
+        assertEquals((int) Math.ceil(20.25 + 300 / size), viewport.getEndRow());
+        assertTrue(viewport.isVisible(10, 20));
+        assertFalse(viewport.isVisible(9, 20));
+        assertFalse(viewport.isVisible(10, 19));
+        assertTrue(viewport.isVisible(viewport.getEndColumn() - 1, viewport.getEndRow() - 1));
+        assertFalse(viewport.isVisible(viewport.getEndColumn(), 20));
+        // The half shown cell on the left edge starts left of the view.
+        assertEquals((int) (-0.5 * size), viewport.pixelLeft(10));
+        assertEquals((int) Math.ceil(0.5 * size), viewport.pixelRight(10));
+    }
+
+    @Test
+    public void ensureResizingKeepsTheOriginInside() {
+        Viewport viewport = setupViewport(100, 100, 400, 300);
+        zoomToTiles(viewport);
+        viewport.scrollTo(1000, 1000);
+        double originX = viewport.getOriginX();
+        viewport.setSize(800.7, 300);
+        assertEquals(800, viewport.getWidth(), DELTA);
+        assertEquals(100 - 800 / viewport.getCellSize(), viewport.getOriginX(), DELTA);
+        assertTrue(viewport.getOriginX() < originX);
+        viewport.setSize(0, 0);
+        assertEquals(1, viewport.getWidth(), DELTA);
+        assertEquals(1, viewport.getHeight(), DELTA);
+    }
+}